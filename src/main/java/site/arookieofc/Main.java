@@ -6,6 +6,7 @@ import site.arookieofc.processor.ioc.AnnotationApplicationContext;
 import site.arookieofc.processor.ioc.ApplicationContextHolder;
 import site.arookieofc.server.EmbeddedTomcatServer;
 import site.arookieofc.server.McpServer;
+import site.arookieofc.utils.StudentCountReconciler;
 
 @Application
 @Slf4j
@@ -13,6 +14,7 @@ public class Main {
     public static void main(String[] args) {
         try {
             init();
+            StudentCountReconciler.start();
             startMCP();
             startWebServer();
         } catch (Exception e) {
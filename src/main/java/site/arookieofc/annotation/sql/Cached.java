@@ -0,0 +1,24 @@
+package site.arookieofc.annotation.sql;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 为@SQL查询方法启用进程内读穿缓存，以参数为键；
+ * 任意DAO对同一张表执行写操作后缓存自动失效
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface Cached {
+    /**
+     * 条目存活时间（毫秒）
+     */
+    long ttl() default 60000;
+
+    /**
+     * 最大条目数，超出时淘汰最久未访问的条目
+     */
+    int maxSize() default 1000;
+}
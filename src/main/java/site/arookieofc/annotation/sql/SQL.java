@@ -10,4 +10,26 @@ import java.lang.annotation.Target;
 public @interface SQL {
     String value();
     String type() default "SELECT";
-}
\ No newline at end of file
+
+    /**
+     * 批量模式：方法唯一参数为List<T>、List<Object[]>或Object[][]，
+     * 每个元素绑定一组参数，通过addBatch/executeBatch执行
+     */
+    boolean batch() default false;
+
+    /**
+     * 批量模式下每次executeBatch的行数
+     */
+    int batchSize() default 1000;
+
+    /**
+     * 批量模式下元素为实体时，按顺序绑定到占位符的属性名
+     */
+    String[] properties() default {};
+
+    /**
+     * 游标模式（返回Stream/Iterator或使用RowConsumer参数）下每次从数据库拉取的行数，
+     * 配合连接参数useCursorFetch使用服务端游标
+     */
+    int fetchSize() default 500;
+}
@@ -14,5 +14,10 @@ public enum Propagation {
 
     NEVER,
 
-    MANDATORY
+    MANDATORY,
+
+    /**
+     * 存在事务时在保存点上开启嵌套事务，回滚只撤销嵌套部分；不存在事务时同REQUIRED
+     */
+    NESTED
 }
\ No newline at end of file
@@ -8,6 +8,7 @@ import reactor.core.publisher.Flux;
 import reactor.core.publisher.Sinks;
 import dev.langchain4j.service.TokenStream;
 import site.arookieofc.service.AiService;
+import site.arookieofc.utils.ai.StreamingCall;
 import java.util.Map;
 
 @Slf4j
@@ -30,15 +31,29 @@ public class AiController {
     }
     
     private Flux<String> processStreamRequest(String message) {
+        // 模型按自身速度推送token，客户端读取较慢时暂存在sink缓冲中，由下游按需request
         Sinks.Many<String> sink = Sinks.many().unicast().onBackpressureBuffer();
         TokenStream tokenStream = aiService.chatStream(message);
-        
-        tokenStream
-            .onPartialResponse(sink::tryEmitNext)
-            .onCompleteResponse((response)-> sink.tryEmitComplete())
-            .onError(sink::tryEmitError)
-            .start();
 
-        return sink.asFlux();
+        // 发出请求前绑定取消句柄，客户端断开时关闭到模型服务的HTTP连接
+        StreamingCall call = StreamingCall.bind();
+        try {
+            tokenStream
+                .onPartialResponse(token -> {
+                    if (!call.isCancelled()) {
+                        sink.tryEmitNext(token);
+                    }
+                })
+                .onCompleteResponse((response)-> sink.tryEmitComplete())
+                .onError(sink::tryEmitError)
+                .start();
+        } finally {
+            call.unbind();
+        }
+
+        return sink.asFlux().doOnCancel(() -> {
+            call.cancel();
+            log.info("客户端已断开，已取消模型请求");
+        });
     }
 }
@@ -41,6 +41,12 @@ public class ClazzController {
         return Result.success("更新班级成功");
     }
 
+    @PostMapping("/reconcile-count")
+    public Result reconcileStudentCounts() {
+        int corrected = clazzService.reconcileStudentCounts();
+        return Result.success("班级学生数量校正完成", corrected);
+    }
+
     @DeleteMapping("/delete/{id}")
     public Result deleteClass(@PathVariable String id) {
         clazzService.deleteClass(id);
@@ -0,0 +1,41 @@
+package site.arookieofc.controller;
+
+import site.arookieofc.annotation.web.*;
+import site.arookieofc.annotation.ioc.Component;
+import site.arookieofc.pojo.dto.Result;
+import site.arookieofc.processor.aop.MetricsInterceptor;
+import site.arookieofc.processor.ioc.AnnotationApplicationContext;
+import site.arookieofc.processor.ioc.ApplicationContext;
+import site.arookieofc.processor.ioc.ApplicationContextHolder;
+import site.arookieofc.processor.sql.QueryCacheManager;
+import site.arookieofc.utils.DatabaseUtil;
+import java.util.List;
+
+@Controller("/metrics")
+@Component
+public class MetricsController {
+
+    @GetMapping("/cache")
+    public Result getCacheMetrics() {
+        return Result.success("获取缓存统计成功", QueryCacheManager.getStatistics());
+    }
+
+    @GetMapping("/pool")
+    public Result getPoolMetrics() {
+        return Result.success("获取连接池统计成功", DatabaseUtil.getPoolStatistics());
+    }
+
+    @GetMapping("/methods")
+    public Result getMethodMetrics() {
+        return Result.success("获取方法调用统计成功", MetricsInterceptor.getStatistics());
+    }
+
+    @GetMapping("/startup")
+    public Result getStartupMetrics() {
+        ApplicationContext context = ApplicationContextHolder.getApplicationContext();
+        if (context instanceof AnnotationApplicationContext annotationContext) {
+            return Result.success("获取Bean创建耗时成功", annotationContext.getBeanCreationTimes());
+        }
+        return Result.success("获取Bean创建耗时成功", List.of());
+    }
+}
@@ -8,6 +8,7 @@ import site.arookieofc.pojo.DO.Student;
 import site.arookieofc.pojo.DO.Teacher;
 import site.arookieofc.pojo.dto.PageResult;
 import site.arookieofc.pojo.dto.Result;
+import site.arookieofc.pojo.dto.StudentDTO;
 import site.arookieofc.pojo.vo.StudentVO;
 import site.arookieofc.pojo.vo.TeacherVO;
 import site.arookieofc.service.ClazzService;
@@ -17,6 +18,7 @@ import site.arookieofc.utils.ConversionUtils;
 import java.net.URLDecoder;
 import java.nio.charset.StandardCharsets;
 import java.util.List;
+import java.util.stream.Collectors;
 
 @Slf4j
 @Controller("/student")
@@ -33,9 +35,13 @@ public class StudentController {
     private ClazzService clazzService;
 
     @GetMapping("/page")
-    public Result getStudentList(@RequestParam("page") int page,
-                                 @RequestParam(value = "size", defaultValue = "10") int size) {
-        PageResult<Student> pageResult = studentService.getStudentsByPage(page, size);
+    public Result getStudentList(@RequestParam(value = "page", required = false, defaultValue = "1") int page,
+                                 @RequestParam(value = "size", defaultValue = "10") int size,
+                                 @RequestParam(value = "cursor", required = false) String cursor) {
+        // 携带cursor参数（可为空串）时使用键集分页
+        PageResult<Student> pageResult = cursor != null
+                ? studentService.getStudentsByCursor(cursor, size)
+                : studentService.getStudentsByPage(page, size);
         PageResult<StudentVO> voPageResult = ConversionUtils
                 .toStudentVOPageResult(pageResult, teacherService, clazzService);
         return Result.success("获取学生列表成功", voPageResult);
@@ -56,6 +62,24 @@ public class StudentController {
         return Result.success("学生 " + student.getName() + " 添加成功");
     }
 
+    @PostMapping("/batch-add")
+    public Result addStudents(@RequestBody List<StudentVO> studentVOs) {
+        List<Student> students = studentVOs.stream()
+                .map(ConversionUtils::toStudentEntity)
+                .collect(Collectors.toList());
+        int count = studentService.addStudents(students);
+        return Result.success("批量添加学生成功", count);
+    }
+
+    @PostMapping("/import")
+    public Result importStudents(@RequestBody List<StudentVO> studentVOs) {
+        List<StudentDTO> students = studentVOs.stream()
+                .map(StudentVO::toDTO)
+                .collect(Collectors.toList());
+        int count = studentService.importStudents(students);
+        return Result.success("导入学生成功", count);
+    }
+
     @PutMapping("/update")
     public Result updateStudent(@RequestBody StudentVO studentVO) {
         Student student = ConversionUtils.toStudentEntity(studentVO);
@@ -92,6 +116,7 @@ public class StudentController {
 
     @RequestMapping("/list")
     public Result getAllStudents() {
+        // 先读完并转换再写出，数据库连接不会在客户端接收期间被占用
         List<Student> students = studentService.getAllStudents();
         List<StudentVO> studentVOs = ConversionUtils
                 .toStudentVOList(students, teacherService, clazzService);
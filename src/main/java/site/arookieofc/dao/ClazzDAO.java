@@ -1,18 +1,25 @@
 package site.arookieofc.dao;
 
+import site.arookieofc.annotation.sql.Cached;
 import site.arookieofc.annotation.sql.SQL;
 import site.arookieofc.pojo.DO.Clazz;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 public interface ClazzDAO {
 
+    @Cached
     @SQL("SELECT * FROM class")
     Optional<List<Clazz>> getAllClasses();
 
+    @Cached
     @SQL("SELECT * FROM class WHERE id = ?")
     Optional<Clazz> getClassById(String id);
 
+    @SQL("SELECT * FROM class WHERE id IN (?)")
+    List<Clazz> getClassesByIds(Collection<String> ids);
+
     @SQL(value = "INSERT INTO class (id, name, teacher_id) VALUES (?, ?, ?)", type = "INSERT")
     int addClass(String id, String name, String teacherId);
 
@@ -25,9 +32,21 @@ public interface ClazzDAO {
     @SQL("SELECT * FROM class WHERE teacher_id = ?")
     Optional<List<Clazz>> getClassesByTeacher(String teacherId);
 
-    @SQL(value = "UPDATE class SET student_count = ? WHERE id = ?", type = "UPDATE")
-    boolean updateStudentCount(int newCount, String id);
+    @SQL(value = "UPDATE class SET student_count = GREATEST(0, COALESCE(student_count, 0) + ?) WHERE id = ?", type = "UPDATE")
+    boolean incrementStudentCount(int delta, String id);
+
+    @SQL(value = "UPDATE class SET student_count = GREATEST(0, COALESCE(student_count, 0) + ?) WHERE id = ?",
+            type = "UPDATE",
+            batch = true)
+    int incrementStudentCounts(List<Object[]> deltas);
+
+    @SQL(value = "UPDATE class c LEFT JOIN (SELECT clazz_id, COUNT(*) AS cnt FROM student GROUP BY clazz_id) s ON s.clazz_id = c.id " +
+            "SET c.student_count = COALESCE(s.cnt, 0) " +
+            "WHERE c.student_count IS NULL OR c.student_count <> COALESCE(s.cnt, 0)",
+            type = "UPDATE")
+    int reconcileStudentCounts();
 
+    @Cached
     @SQL("SELECT id FROM class WHERE name = ?")
     Optional<String> getClassIdByName(String clazz);
 }
\ No newline at end of file
@@ -4,6 +4,7 @@ import site.arookieofc.annotation.sql.SQL;
 import site.arookieofc.pojo.DO.Student;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface StudentDAO {
 
@@ -13,6 +14,12 @@ public interface StudentDAO {
     @SQL(value = "INSERT INTO student (id,name, age, teacher_id, clazz_id) VALUES (?,?, ?, ?, ?)", type = "INSERT")
     int addStudent(String id, String name, int age, String teacherId, String clazz);
 
+    @SQL(value = "INSERT INTO student (id, name, age, teacher_id, clazz_id) VALUES (?, ?, ?, ?, ?)",
+            type = "INSERT",
+            batch = true,
+            properties = {"id", "name", "age", "teacherId", "clazzId"})
+    int addStudents(List<Student> students);
+
     @SQL(value = "UPDATE student SET name = ?, age = ?, teacher_id = ?, clazz_id = ? WHERE id = ?", type = "UPDATE")
     boolean updateStudent(String name, int age, String teacherId, String clazz, String id);
 
@@ -22,6 +29,9 @@ public interface StudentDAO {
     @SQL("SELECT * FROM student")
     Optional<List<Student>> getAllStudents();
 
+    @SQL("SELECT * FROM student")
+    Stream<Student> streamAllStudents();
+
     @SQL("SELECT * FROM student WHERE clazz_id = ?")
     Optional<List<Student>> getStudentsByClass(String clazz);
 
@@ -31,8 +41,14 @@ public interface StudentDAO {
     @SQL("SELECT * FROM student WHERE teacher_id = ?")
     Optional<List<Student>> getStudentsByTeacher(String teacherId);
 
-    @SQL("SELECT * FROM student LIMIT ? OFFSET ?")
-    Optional<List<Student>> getStudentsByPage(int limit, int offset);
+    @SQL("SELECT * FROM student ORDER BY id LIMIT ? OFFSET ?")
+    List<Student> getStudentsByPage(int limit, long offset);
+
+    @SQL("SELECT * FROM student ORDER BY id LIMIT ?")
+    List<Student> getFirstStudents(int limit);
+
+    @SQL("SELECT * FROM student WHERE id > ? ORDER BY id LIMIT ?")
+    List<Student> getStudentsAfter(String lastId, int limit);
 
     @SQL("SELECT COUNT(*) FROM student")
     long getTotalStudentCount();
@@ -1,18 +1,25 @@
 package site.arookieofc.dao;
 
+import site.arookieofc.annotation.sql.Cached;
 import site.arookieofc.annotation.sql.SQL;
 import site.arookieofc.pojo.DO.Teacher;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 public interface TeacherDAO {
     
+    @Cached
     @SQL("SELECT * FROM teacher")
     Optional<List<Teacher>> getAllTeachers();
     
+    @Cached
     @SQL("SELECT * FROM teacher WHERE id = ?")
     Optional<Teacher> getTeacherById(String id);
 
+    @SQL("SELECT * FROM teacher WHERE id IN (?)")
+    List<Teacher> getTeachersByIds(Collection<String> ids);
+
     @SQL("SELECT DISTINCT name FROM class WHERE id IN (SELECT DISTINCT clazz_id FROM student WHERE clazz_id IS NOT NULL AND clazz_id != '')")
     Optional<List<String>> getAllClassNames();
 
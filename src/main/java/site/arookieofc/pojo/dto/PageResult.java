@@ -19,7 +19,17 @@ public class PageResult<T> {
     private int page;
     private int size;
     private int totalPages;
-    
+
+    /**
+     * 键集分页的续读游标，没有下一页时为null
+     */
+    private String nextCursor;
+
+    public PageResult(List<T> data, long total, int page, int size, String nextCursor) {
+        this(data, total, page, size);
+        this.nextCursor = nextCursor;
+    }
+
     public PageResult(List<T> data, long total, int page, int size) {
         this.data = data;
         this.total = total;
@@ -0,0 +1,111 @@
+package site.arookieofc.processor.aop;
+
+import site.arookieofc.processor.proxy.GeneratedProxy;
+import site.arookieofc.processor.proxy.ProxyClassGenerator;
+import java.lang.invoke.MethodHandle;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 生成的拦截链代理类的父类
+ * 被拦截的方法按序号取出建链时确定的拦截器和调用句柄，其余方法由生成的代码直接调用目标对象；
+ * equals、hashCode和toString与JDK代理一样转发给目标对象
+ */
+public abstract class GeneratedChainProxy extends GeneratedProxy {
+
+    private final Method[] methods;
+    private final MethodInterceptor[][] chains;
+    private final MethodHandle[] invokers;
+
+    protected GeneratedChainProxy(Object state) {
+        this((State) state);
+    }
+
+    private GeneratedChainProxy(State state) {
+        super(state.target);
+        this.methods = state.methods;
+        this.chains = state.chains;
+        this.invokers = state.invokers;
+    }
+
+    @Override
+    protected final Object dispatch(int index, Object[] args) throws Throwable {
+        return new MethodInvocation(target, methods[index], args, chains[index], invokers[index]).proceed();
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        return target.equals(obj);
+    }
+
+    @Override
+    public int hashCode() {
+        return target.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return target.toString();
+    }
+
+    /**
+     * 生成代理类并创建实例；无法生成时返回null
+     */
+    static Object create(Object target, Class<?>[] interfaces, Map<Method, InterceptorChain.Entry> entries) {
+        List<Method> methods = new ArrayList<>();
+        for (Class<?> iface : interfaces) {
+            for (Method method : iface.getMethods()) {
+                if (!Modifier.isStatic(method.getModifiers())) {
+                    methods.add(method);
+                }
+            }
+        }
+
+        int[] bindings = new int[methods.size()];
+        List<InterceptorChain.Entry> dispatched = new ArrayList<>(entries.size());
+        for (int i = 0; i < bindings.length; i++) {
+            InterceptorChain.Entry entry = entries.get(methods.get(i));
+            if (entry == null) {
+                bindings[i] = ProxyClassGenerator.DIRECT;
+            } else {
+                bindings[i] = dispatched.size();
+                dispatched.add(entry);
+            }
+        }
+
+        MethodHandle constructor = ProxyClassGenerator.define(target.getClass(), GeneratedChainProxy.class,
+                interfaces, methods.toArray(new Method[0]), bindings);
+        if (constructor == null) {
+            return null;
+        }
+        try {
+            return (Object) constructor.invokeExact((Object) new State(target, dispatched));
+        } catch (Throwable e) {
+            throw new RuntimeException("创建代理实例失败: " + target.getClass().getName(), e);
+        }
+    }
+
+    private static final class State {
+
+        private final Object target;
+        private final Method[] methods;
+        private final MethodInterceptor[][] chains;
+        private final MethodHandle[] invokers;
+
+        State(Object target, List<InterceptorChain.Entry> entries) {
+            this.target = target;
+            this.methods = new Method[entries.size()];
+            this.chains = new MethodInterceptor[entries.size()][];
+            this.invokers = new MethodHandle[entries.size()];
+            for (int i = 0; i < entries.size(); i++) {
+                InterceptorChain.Entry entry = entries.get(i);
+                methods[i] = entry.implMethod();
+                chains[i] = entry.interceptors();
+                invokers[i] = entry.invoker();
+            }
+        }
+    }
+}
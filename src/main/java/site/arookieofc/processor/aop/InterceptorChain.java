@@ -0,0 +1,125 @@
+package site.arookieofc.processor.aop;
+
+import lombok.extern.slf4j.Slf4j;
+import site.arookieofc.processor.proxy.ProxyClassGenerator;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 组合拦截链代理
+ * 创建代理时为每个接口方法筛选一次适用的拦截器，所有拦截器共用一个代理，避免每种横切逻辑各包一层代理；
+ * 默认使用JDK动态代理，调用时按方法查表；aop.proxy-engine为generated时由ProxyClassGenerator生成代理类，
+ * 未被拦截的方法直接调用目标对象，无法生成时仍退回JDK动态代理
+ */
+@Slf4j
+public final class InterceptorChain implements InvocationHandler {
+
+    private static final MethodInterceptor[] NONE = new MethodInterceptor[0];
+    private static final Object[] NO_ARGS = new Object[0];
+
+    private final Object target;
+    private final Map<Method, Entry> entries;
+
+    private InterceptorChain(Object target, Map<Method, Entry> entries) {
+        this.target = target;
+        this.entries = entries;
+    }
+
+    /**
+     * 按顺序应用拦截器；目标没有实现接口或没有任何方法需要拦截时原样返回
+     */
+    public static Object apply(Object target, List<MethodInterceptor> interceptors) {
+        Class<?> targetClass = target.getClass();
+        Class<?>[] interfaces = getAllInterfaces(targetClass);
+        if (interfaces.length == 0 || interceptors.isEmpty()) {
+            return target;
+        }
+
+        Map<Method, Entry> entries = new HashMap<>();
+        for (Class<?> iface : interfaces) {
+            for (Method method : iface.getMethods()) {
+                Method implMethod = implementationOf(targetClass, method);
+                List<MethodInterceptor> matched = new ArrayList<>(interceptors.size());
+                for (MethodInterceptor interceptor : interceptors) {
+                    if (interceptor.appliesTo(implMethod, targetClass)) {
+                        matched.add(interceptor);
+                    }
+                }
+                if (!matched.isEmpty()) {
+                    entries.put(method, new Entry(implMethod, matched.toArray(NONE), buildInvoker(method)));
+                }
+            }
+        }
+        if (entries.isEmpty()) {
+            return target;
+        }
+
+        log.debug("为 {} 创建拦截链代理, 接口数量: {}, 被拦截方法数量: {}",
+                targetClass.getName(), interfaces.length, entries.size());
+        if (ProxyClassGenerator.isEnabled()) {
+            Object proxy = GeneratedChainProxy.create(target, interfaces, entries);
+            if (proxy != null) {
+                return proxy;
+            }
+        }
+        return Proxy.newProxyInstance(targetClass.getClassLoader(), interfaces,
+                new InterceptorChain(target, entries));
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+        Entry entry = entries.get(method);
+        if (entry == null) {
+            return MethodInvocation.invokeTarget(target, method, args);
+        }
+        return new MethodInvocation(target, entry.implMethod, args == null ? NO_ARGS : args,
+                entry.interceptors, entry.invoker).proceed();
+    }
+
+    /**
+     * 生成(Object, Object[])Object形式的调用句柄，拦截链末端通过它调用目标方法
+     */
+    private static MethodHandle buildInvoker(Method method) {
+        try {
+            Class<?> declaringClass = method.getDeclaringClass();
+            MethodHandles.Lookup lookup = Modifier.isPublic(declaringClass.getModifiers())
+                    ? MethodHandles.lookup()
+                    : MethodHandles.privateLookupIn(declaringClass, MethodHandles.lookup());
+            MethodHandle handle = lookup.unreflect(method);
+            return handle.asType(handle.type().generic())
+                    .asSpreader(Object[].class, method.getParameterCount());
+        } catch (IllegalAccessException e) {
+            throw new RuntimeException("Cannot access interface method: " + method, e);
+        }
+    }
+
+    private static Method implementationOf(Class<?> targetClass, Method method) {
+        try {
+            return targetClass.getMethod(method.getName(), method.getParameterTypes());
+        } catch (NoSuchMethodException e) {
+            return method;
+        }
+    }
+
+    private static Class<?>[] getAllInterfaces(Class<?> clazz) {
+        Set<Class<?>> interfaces = new LinkedHashSet<>();
+        for (Class<?> current = clazz; current != null && current != Object.class; current = current.getSuperclass()) {
+            interfaces.addAll(Arrays.asList(current.getInterfaces()));
+        }
+        return interfaces.toArray(new Class<?>[0]);
+    }
+
+    record Entry(Method implMethod, MethodInterceptor[] interceptors, MethodHandle invoker) {
+    }
+}
@@ -0,0 +1,23 @@
+package site.arookieofc.processor.aop;
+
+import java.lang.reflect.Method;
+
+/**
+ * 方法拦截器
+ * 容器创建Bean时对每个接口方法调用appliesTo，只有返回true的拦截器进入该方法的拦截链
+ */
+public interface MethodInterceptor {
+
+    /**
+     * 判断是否拦截该方法
+     *
+     * @param method      实现类上的方法，可直接读取实现类声明的注解
+     * @param targetClass 目标Bean的实际类型
+     */
+    boolean appliesTo(Method method, Class<?> targetClass);
+
+    /**
+     * 执行拦截逻辑，调用invocation.proceed()进入下一个拦截器或目标方法
+     */
+    Object invoke(MethodInvocation invocation) throws Throwable;
+}
@@ -0,0 +1,59 @@
+package site.arookieofc.processor.aop;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+
+/**
+ * 一次方法调用在拦截链上的游标
+ * 每次调用创建一个实例，proceed()依次进入下一个拦截器，链尾通过建链时生成的方法句柄调用目标方法；
+ * 目标方法抛出的异常原样抛出
+ */
+public final class MethodInvocation {
+
+    private final Object target;
+    private final Method method;
+    private final Object[] arguments;
+    private final MethodInterceptor[] interceptors;
+    private final MethodHandle invoker;
+    private int index;
+
+    MethodInvocation(Object target, Method method, Object[] arguments,
+                     MethodInterceptor[] interceptors, MethodHandle invoker) {
+        this.target = target;
+        this.method = method;
+        this.arguments = arguments;
+        this.interceptors = interceptors;
+        this.invoker = invoker;
+    }
+
+    public Object proceed() throws Throwable {
+        if (index < interceptors.length) {
+            return interceptors[index++].invoke(this);
+        }
+        return (Object) invoker.invokeExact(target, arguments);
+    }
+
+    static Object invokeTarget(Object target, Method method, Object[] arguments) throws Throwable {
+        try {
+            return method.invoke(target, arguments);
+        } catch (InvocationTargetException e) {
+            throw e.getTargetException();
+        }
+    }
+
+    public Object getTarget() {
+        return target;
+    }
+
+    /**
+     * 实现类上的方法，注解从这里读取
+     */
+    public Method getMethod() {
+        return method;
+    }
+
+    public Object[] getArguments() {
+        return arguments;
+    }
+}
@@ -0,0 +1,109 @@
+package site.arookieofc.processor.aop;
+
+import lombok.extern.slf4j.Slf4j;
+import site.arookieofc.annotation.config.Config;
+import site.arookieofc.processor.config.ConfigProcessor;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 方法调用统计拦截器
+ * 按实现方法记录调用次数、异常次数和耗时；计数器在建链时创建，调用时只做一次查表。
+ * 默认关闭：开启后每个Bean接口方法都会经过拦截链，未拦截方法的直接调用路径不再生效
+ */
+@Slf4j
+public class MetricsInterceptor implements MethodInterceptor {
+
+    static {
+        ConfigProcessor.injectStaticFields(MetricsInterceptor.class);
+    }
+
+    @Config(value = "aop.method-metrics", defaultValue = "false")
+    private static boolean enabled;
+
+    private static final Map<Method, MethodStats> stats = new ConcurrentHashMap<>();
+
+    @Override
+    public boolean appliesTo(Method method, Class<?> targetClass) {
+        if (!enabled) {
+            return false;
+        }
+        stats.computeIfAbsent(method, m -> new MethodStats(targetClass.getSimpleName() + "." + m.getName()));
+        return true;
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        MethodStats methodStats = stats.get(invocation.getMethod());
+        long start = System.nanoTime();
+        boolean failed = true;
+        try {
+            Object result = invocation.proceed();
+            failed = false;
+            return result;
+        } finally {
+            methodStats.record(System.nanoTime() - start, failed);
+        }
+    }
+
+    /**
+     * 已被调用过的方法统计，按累计耗时降序
+     */
+    public static List<Map<String, Object>> getStatistics() {
+        List<MethodStats> called = new ArrayList<>();
+        for (MethodStats methodStats : stats.values()) {
+            if (methodStats.calls.sum() > 0) {
+                called.add(methodStats);
+            }
+        }
+        called.sort(Comparator.comparingLong((MethodStats s) -> s.totalNanos.sum()).reversed());
+
+        List<Map<String, Object>> statistics = new ArrayList<>(called.size());
+        for (MethodStats methodStats : called) {
+            statistics.add(methodStats.toMap());
+        }
+        return Collections.unmodifiableList(statistics);
+    }
+
+    private static final class MethodStats {
+        private final String name;
+        private final LongAdder calls = new LongAdder();
+        private final LongAdder errors = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+
+        private MethodStats(String name) {
+            this.name = name;
+        }
+
+        private void record(long nanos, boolean failed) {
+            calls.increment();
+            totalNanos.add(nanos);
+            maxNanos.accumulate(nanos);
+            if (failed) {
+                errors.increment();
+            }
+        }
+
+        private Map<String, Object> toMap() {
+            long callCount = calls.sum();
+            long total = totalNanos.sum();
+            Map<String, Object> map = new LinkedHashMap<>();
+            map.put("method", name);
+            map.put("calls", callCount);
+            map.put("errors", errors.sum());
+            map.put("totalTimeMs", total / 1_000_000.0);
+            map.put("avgTimeMs", callCount == 0 ? 0.0 : total / 1_000_000.0 / callCount);
+            map.put("maxTimeMs", maxNanos.get() / 1_000_000.0);
+            return map;
+        }
+    }
+}
@@ -8,13 +8,11 @@ import com.fasterxml.jackson.core.json.JsonWriteFeature;
 import lombok.extern.slf4j.Slf4j;
 import site.arookieofc.Main;
 import site.arookieofc.annotation.config.Config;
-import java.io.File;
+import site.arookieofc.processor.index.ComponentIndex;
 import java.io.InputStream;
 import java.lang.reflect.Field;
-import java.net.URL;
-import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
-import java.util.Set;
 
 @Slf4j
 public class ConfigProcessor {
@@ -35,7 +33,7 @@ public class ConfigProcessor {
         log.debug("开始自动注入所有类的配置...");
         try {
             String basePackage = Main.class.getPackage().getName();
-            Set<Class<?>> classes = scanClassesWithConfigAnnotation(basePackage);
+            List<Class<?>> classes = ComponentIndex.getClasses(ComponentIndex.CONFIG, basePackage);
             log.debug("找到 {} 个带有配置注解的类", classes.size());
             
             for (Class<?> clazz : classes) {
@@ -48,54 +46,6 @@ public class ConfigProcessor {
         }
     }
     
-    private static Set<Class<?>> scanClassesWithConfigAnnotation(String basePackage) {
-        Set<Class<?>> classes = new HashSet<>();
-        try {
-            String path = basePackage.replace('.', '/');
-            URL resource = Thread.currentThread().getContextClassLoader().getResource(path);
-            if (resource != null) {
-                File directory = new File(resource.getFile());
-                scanDirectory(directory, basePackage, classes);
-            }
-        } catch (Exception e) {
-            log.error(e.getMessage(),e);
-        }
-        return classes;
-    }
-    
-    private static void scanDirectory(File directory, String packageName, Set<Class<?>> classes) {
-        if (!directory.exists()) return;
-        
-        File[] files = directory.listFiles();
-        if (files == null) return;
-        
-        for (File file : files) {
-            if (file.isDirectory()) {
-                scanDirectory(file, packageName + "." + file.getName(), classes);
-            } else if (file.getName().endsWith(".class")) {
-                String className = packageName + "." + file.getName().substring(0, file.getName().length() - 6);
-                try {
-                    Class<?> clazz = Class.forName(className);
-                    if (hasConfigAnnotatedFields(clazz)) {
-                        classes.add(clazz);
-                    }
-                } catch (ClassNotFoundException e) {
-                    // 忽略无法加载的类
-                }
-            }
-        }
-    }
-    
-    private static boolean hasConfigAnnotatedFields(Class<?> clazz) {
-        Field[] fields = clazz.getDeclaredFields();
-        for (Field field : fields) {
-            if (field.isAnnotationPresent(Config.class)) {
-                return true;
-            }
-        }
-        return false;
-    }
-    
     @SuppressWarnings("unchecked")
     private static void loadConfig() {
         log.debug("加载配置文件...");
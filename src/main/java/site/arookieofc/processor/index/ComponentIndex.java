@@ -0,0 +1,193 @@
+package site.arookieofc.processor.index;
+
+import lombok.extern.slf4j.Slf4j;
+import site.arookieofc.annotation.config.Config;
+import site.arookieofc.annotation.ioc.Component;
+import site.arookieofc.annotation.sql.SQL;
+import site.arookieofc.annotation.web.Controller;
+import site.arookieofc.annotation.web.ControllerException;
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 组件索引
+ * 启动时读取ComponentIndexProcessor在编译期生成的META-INF/arookieofc.components，
+ * 容器、配置注入、控制器注册和异常处理器注册共用同一份索引，也支持以jar方式运行；
+ * classpath中没有索引或索引未覆盖请求的包时，退回为该包遍历一次类目录，结果同样缓存
+ */
+@Slf4j
+public final class ComponentIndex {
+
+    public static final String COMPONENT = ComponentIndexProcessor.STEREOTYPE_COMPONENT;
+    public static final String CONTROLLER = ComponentIndexProcessor.STEREOTYPE_CONTROLLER;
+    public static final String DAO = ComponentIndexProcessor.STEREOTYPE_DAO;
+    public static final String CONFIG = ComponentIndexProcessor.STEREOTYPE_CONFIG;
+    public static final String EXCEPTION_HANDLER = ComponentIndexProcessor.STEREOTYPE_EXCEPTION_HANDLER;
+
+    // 类名 -> 类别，来自编译期索引
+    private static final Map<String, List<String>> indexed = loadIndex();
+    // 未被索引覆盖的包 -> 目录扫描得到的类名和类别
+    private static final Map<String, Map<String, List<String>>> scanned = new ConcurrentHashMap<>();
+
+    private ComponentIndex() {
+    }
+
+    /**
+     * 获取指定包（含子包）下属于某一类别的类，按类名排序
+     */
+    public static List<Class<?>> getClasses(String stereotype, String basePackage) {
+        Map<String, List<String>> source = coversPackage(basePackage)
+                ? indexed
+                : scanned.computeIfAbsent(basePackage, ComponentIndex::scanPackage);
+
+        String prefix = basePackage + ".";
+        List<Class<?>> classes = new ArrayList<>();
+        for (Map.Entry<String, List<String>> entry : source.entrySet()) {
+            String className = entry.getKey();
+            if (className.startsWith(prefix) && entry.getValue().contains(stereotype)) {
+                Class<?> clazz = load(className);
+                if (clazz != null) {
+                    classes.add(clazz);
+                }
+            }
+        }
+        return classes;
+    }
+
+    private static boolean coversPackage(String basePackage) {
+        String prefix = basePackage + ".";
+        for (String className : indexed.keySet()) {
+            if (className.startsWith(prefix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static Class<?> load(String className) {
+        try {
+            return Class.forName(className, false, classLoader());
+        } catch (ClassNotFoundException | LinkageError e) {
+            log.warn("无法加载索引中的类: {}, 原因: {}", className, e.getMessage());
+            return null;
+        }
+    }
+
+    private static ClassLoader classLoader() {
+        ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+        return classLoader != null ? classLoader : ComponentIndex.class.getClassLoader();
+    }
+
+    private static Map<String, List<String>> loadIndex() {
+        Map<String, List<String>> index = new TreeMap<>();
+        try {
+            Enumeration<URL> resources = classLoader().getResources(ComponentIndexProcessor.INDEX_LOCATION);
+            while (resources.hasMoreElements()) {
+                URL url = resources.nextElement();
+                try (BufferedReader reader = new BufferedReader(
+                        new InputStreamReader(url.openStream(), StandardCharsets.UTF_8))) {
+                    String line;
+                    while ((line = reader.readLine()) != null) {
+                        int separator = line.indexOf('=');
+                        if (separator > 0) {
+                            index.computeIfAbsent(line.substring(0, separator).trim(), k -> new ArrayList<>(1))
+                                    .addAll(List.of(line.substring(separator + 1).trim().split(",")));
+                        }
+                    }
+                }
+                log.debug("读取组件索引: {}", url);
+            }
+        } catch (IOException e) {
+            log.warn("读取组件索引失败，将退回目录扫描: {}", e.getMessage());
+        }
+        if (index.isEmpty()) {
+            log.info("classpath中没有组件索引，将退回目录扫描");
+        } else {
+            log.info("读取组件索引完成，共 {} 个类", index.size());
+        }
+        return Collections.unmodifiableMap(index);
+    }
+
+    /**
+     * 退回方案：遍历包对应的类目录，按注解判断类别；只支持未打包的目录
+     */
+    private static Map<String, List<String>> scanPackage(String basePackage) {
+        Map<String, List<String>> result = new LinkedHashMap<>();
+        URL resource = classLoader().getResource(basePackage.replace('.', '/'));
+        if (resource == null) {
+            log.warn("无法获取包资源: {}", basePackage);
+            return result;
+        }
+        File directory = new File(resource.getFile());
+        if (!directory.isDirectory()) {
+            log.warn("包路径不是目录，且没有组件索引: {}", resource);
+            return result;
+        }
+        log.debug("目录扫描包: {}", basePackage);
+        scanDirectory(directory, basePackage, result);
+        return result;
+    }
+
+    private static void scanDirectory(File directory, String packageName, Map<String, List<String>> result) {
+        File[] files = directory.listFiles();
+        if (files == null) {
+            return;
+        }
+        for (File file : files) {
+            if (file.isDirectory()) {
+                scanDirectory(file, packageName + "." + file.getName(), result);
+            } else if (file.getName().endsWith(".class")) {
+                String className = packageName + "." + file.getName().substring(0, file.getName().length() - 6);
+                Class<?> clazz = load(className);
+                if (clazz != null) {
+                    List<String> stereotypes = stereotypesOf(clazz);
+                    if (!stereotypes.isEmpty()) {
+                        result.put(className, stereotypes);
+                    }
+                }
+            }
+        }
+    }
+
+    private static List<String> stereotypesOf(Class<?> clazz) {
+        List<String> stereotypes = new ArrayList<>(1);
+        if (clazz.isAnnotationPresent(Component.class)) {
+            stereotypes.add(COMPONENT);
+        }
+        if (clazz.isAnnotationPresent(Controller.class)) {
+            stereotypes.add(CONTROLLER);
+        }
+        if (clazz.isAnnotationPresent(ControllerException.class)) {
+            stereotypes.add(EXCEPTION_HANDLER);
+        }
+        if (clazz.isInterface()) {
+            for (Method method : clazz.getDeclaredMethods()) {
+                if (method.isAnnotationPresent(SQL.class)) {
+                    stereotypes.add(DAO);
+                    break;
+                }
+            }
+        }
+        for (Field field : clazz.getDeclaredFields()) {
+            if (field.isAnnotationPresent(Config.class)) {
+                stereotypes.add(CONFIG);
+                break;
+            }
+        }
+        return stereotypes;
+    }
+}
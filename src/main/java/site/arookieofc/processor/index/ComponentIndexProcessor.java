@@ -0,0 +1,171 @@
+package site.arookieofc.processor.index;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.TypeElement;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * 组件索引注解处理器
+ * 编译期收集@Component、@Controller、含@SQL方法的DAO接口、含@Config字段的类和@ControllerException类，
+ * 写入META-INF/arookieofc.components，每行形如 类的二进制名=类别1,类别2；
+ * 运行时由ComponentIndex读取，启动时不再遍历classpath目录。
+ * 本类由单独的proc:none编译执行先行编译，不能依赖项目中的其他类，注解以全限定名引用
+ */
+@SupportedAnnotationTypes({
+        ComponentIndexProcessor.COMPONENT,
+        ComponentIndexProcessor.CONTROLLER,
+        ComponentIndexProcessor.SQL,
+        ComponentIndexProcessor.CONFIG,
+        ComponentIndexProcessor.CONTROLLER_EXCEPTION
+})
+public class ComponentIndexProcessor extends AbstractProcessor {
+
+    public static final String INDEX_LOCATION = "META-INF/arookieofc.components";
+
+    public static final String STEREOTYPE_COMPONENT = "component";
+    public static final String STEREOTYPE_CONTROLLER = "controller";
+    public static final String STEREOTYPE_DAO = "dao";
+    public static final String STEREOTYPE_CONFIG = "config";
+    public static final String STEREOTYPE_EXCEPTION_HANDLER = "exception-handler";
+
+    static final String COMPONENT = "site.arookieofc.annotation.ioc.Component";
+    static final String CONTROLLER = "site.arookieofc.annotation.web.Controller";
+    static final String SQL = "site.arookieofc.annotation.sql.SQL";
+    static final String CONFIG = "site.arookieofc.annotation.config.Config";
+    static final String CONTROLLER_EXCEPTION = "site.arookieofc.annotation.web.ControllerException";
+
+    // 类的二进制名 -> 类别，按类名排序使输出稳定
+    private final Map<String, Set<String>> entries = new TreeMap<>();
+    // 本次编译处理过的类，旧索引中的同名条目以本次结果为准
+    private final Set<String> processedTypes = new LinkedHashSet<>();
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        for (Element root : roundEnv.getRootElements()) {
+            if (root instanceof TypeElement type) {
+                collectProcessedTypes(type);
+            }
+        }
+        for (TypeElement annotation : annotations) {
+            String stereotype = stereotypeOf(annotation.getQualifiedName().toString());
+            for (Element element : roundEnv.getElementsAnnotatedWith(annotation)) {
+                TypeElement type = owningType(element);
+                if (type != null && (!stereotype.equals(STEREOTYPE_DAO) || type.getKind() == ElementKind.INTERFACE)) {
+                    add(binaryName(type), stereotype);
+                }
+            }
+        }
+        if (roundEnv.processingOver()) {
+            writeIndex();
+        }
+        return false;
+    }
+
+    private static String stereotypeOf(String annotation) {
+        return switch (annotation) {
+            case COMPONENT -> STEREOTYPE_COMPONENT;
+            case CONTROLLER -> STEREOTYPE_CONTROLLER;
+            case SQL -> STEREOTYPE_DAO;
+            case CONFIG -> STEREOTYPE_CONFIG;
+            default -> STEREOTYPE_EXCEPTION_HANDLER;
+        };
+    }
+
+    private void collectProcessedTypes(TypeElement type) {
+        processedTypes.add(binaryName(type));
+        for (Element enclosed : type.getEnclosedElements()) {
+            if (enclosed instanceof TypeElement nested) {
+                collectProcessedTypes(nested);
+            }
+        }
+    }
+
+    /**
+     * 字段、方法上的注解归属其声明类，类上的注解归属自身
+     */
+    private static TypeElement owningType(Element element) {
+        Element current = element;
+        while (current != null && !(current instanceof TypeElement)) {
+            current = current.getEnclosingElement();
+        }
+        return (TypeElement) current;
+    }
+
+    private String binaryName(TypeElement type) {
+        return processingEnv.getElementUtils().getBinaryName(type).toString();
+    }
+
+    private void add(String className, String stereotype) {
+        entries.computeIfAbsent(className, k -> new LinkedHashSet<>()).add(stereotype);
+    }
+
+    private void writeIndex() {
+        mergePreviousIndex();
+        if (entries.isEmpty()) {
+            return;
+        }
+        try {
+            FileObject file = processingEnv.getFiler()
+                    .createResource(StandardLocation.CLASS_OUTPUT, "", INDEX_LOCATION);
+            try (Writer writer = file.openWriter()) {
+                for (Map.Entry<String, Set<String>> entry : entries.entrySet()) {
+                    writer.write(entry.getKey());
+                    writer.write('=');
+                    writer.write(String.join(",", entry.getValue()));
+                    writer.write('\n');
+                }
+            }
+        } catch (IOException e) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "写入组件索引失败: " + e.getMessage());
+        }
+    }
+
+    /**
+     * 增量编译时只有部分源文件参与处理，保留旧索引中未被重新处理且仍然存在的类
+     */
+    private void mergePreviousIndex() {
+        try {
+            FileObject previous = processingEnv.getFiler()
+                    .getResource(StandardLocation.CLASS_OUTPUT, "", INDEX_LOCATION);
+            try (Reader reader = previous.openReader(true); BufferedReader lines = new BufferedReader(reader)) {
+                String line;
+                while ((line = lines.readLine()) != null) {
+                    int separator = line.indexOf('=');
+                    if (separator <= 0) {
+                        continue;
+                    }
+                    String className = line.substring(0, separator);
+                    if (processedTypes.contains(className) || entries.containsKey(className)
+                            || processingEnv.getElementUtils().getTypeElement(className.replace('$', '.')) == null) {
+                        continue;
+                    }
+                    for (String stereotype : line.substring(separator + 1).split(",")) {
+                        add(className, stereotype.trim());
+                    }
+                }
+            }
+        } catch (IOException | IllegalArgumentException e) {
+            // 首次编译没有旧索引
+        }
+    }
+}
@@ -2,32 +2,65 @@ package site.arookieofc.processor.ioc;
 
 import lombok.extern.slf4j.Slf4j;
 import site.arookieofc.Main;
+import site.arookieofc.annotation.config.Config;
 import site.arookieofc.annotation.ioc.Autowired;
 import site.arookieofc.annotation.ioc.Bean;
 import site.arookieofc.annotation.ioc.Component;
 import site.arookieofc.annotation.ioc.Lazy;
 import site.arookieofc.annotation.sql.SQL;
-import site.arookieofc.processor.sql.SQLExecutor;
-import java.io.File;
+import site.arookieofc.processor.aop.InterceptorChain;
+import site.arookieofc.processor.aop.MethodInterceptor;
+import site.arookieofc.processor.aop.MetricsInterceptor;
+import site.arookieofc.processor.config.ConfigProcessor;
+import site.arookieofc.processor.index.ComponentIndex;
+import site.arookieofc.processor.proxy.ProxyClassGenerator;
+import site.arookieofc.processor.sql.DaoMethodDescriptor;
+import site.arookieofc.processor.sql.GeneratedDaoProxy;
+import site.arookieofc.processor.sql.QueryCacheManager;
+import site.arookieofc.processor.transaction.TransactionInterceptor;
+import site.arookieofc.processor.validation.ValidationInterceptor;
 import java.lang.reflect.*;
-import java.net.URL;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
 import java.util.function.Supplier;
-import java.lang.reflect.Parameter;
 
 @Slf4j
 public class AnnotationApplicationContext implements ApplicationContext {
 
+    static {
+        ConfigProcessor.injectStaticFields(AnnotationApplicationContext.class);
+    }
+
+    @Config(value = "ioc.parallel-init", defaultValue = "true")
+    private static boolean parallelInit;
+
     private final Map<String, BeanDefinition> beanDefinitionMap = new ConcurrentHashMap<>();
+    // Bean名称的注册顺序，beanDefinitionMap不保留顺序；只在refresh期间由单个线程写入
+    private final List<String> beanDefinitionNames = new ArrayList<>();
+    // 已提示过按类型查找有多个候选的类型，每个类型只警告一次
+    private final Set<Class<?>> ambiguousTypes = ConcurrentHashMap.newKeySet();
     // 一级缓存：完成品单例对象
     private final Map<String, Object> singletonObjects = new ConcurrentHashMap<>();
     // 二级缓存：早期单例对象（已实例化但未完成依赖注入）
     private final Map<String, Object> earlySingletonObjects = new ConcurrentHashMap<>();
     // 三级缓存：单例工厂（用于创建早期对象）
     private final Map<String, ObjectFactory<?>> singletonFactories = new ConcurrentHashMap<>();
-    // 正在创建的单例Bean名称集合
-    private final Set<String> singletonsCurrentlyInCreation = Collections.synchronizedSet(new HashSet<>());
+    // 正在创建的单例Bean名称 -> 创建线程
+    private final Map<String, Thread> singletonsCurrentlyInCreation = new ConcurrentHashMap<>();
+    // 单例创建锁，每个Bean一个
+    private final Map<String, Object> creationLocks = new ConcurrentHashMap<>();
+    // Bean名称 -> 创建耗时(纳秒)，依赖Bean的创建时间计入各自名下
+    private final Map<String, Long> creationTimes = new ConcurrentHashMap<>();
+    // 当前线程已完成的嵌套创建累计耗时，用于从外层Bean的耗时中扣除
+    private static final ThreadLocal<long[]> nestedCreationNanos = ThreadLocal.withInitial(() -> new long[1]);
+    // 拦截链：统计 -> 参数验证 -> 事务 -> 目标方法，验证失败时不开启事务
+    private final List<MethodInterceptor> interceptors = List.of(
+            new MetricsInterceptor(), new ValidationInterceptor(), new TransactionInterceptor());
+
+    // 类型索引：Bean类型及其所有父类、接口 -> 按注册顺序排列的Bean名称，刷新时整体替换
+    private volatile Map<Class<?>, String[]> typeIndex = Map.of();
 
     private final String[] basePackages;
 
@@ -48,6 +81,7 @@ public class AnnotationApplicationContext implements ApplicationContext {
         log.info("刷新ApplicationContext...");
         scanComponents();
         scanDAOInterfaces();
+        buildTypeIndex();
         preInstantiateSingletons();
         log.info("ApplicationContext刷新完成，共加载 {} 个Bean定义", beanDefinitionMap.size());
     }
@@ -56,7 +90,9 @@ public class AnnotationApplicationContext implements ApplicationContext {
         log.debug("开始扫描组件...");
         for (String basePackage : basePackages) {
             log.debug("扫描包: {}", basePackage);
-            scanPackage(basePackage);
+            for (Class<?> clazz : ComponentIndex.getClasses(ComponentIndex.COMPONENT, basePackage)) {
+                processClass(clazz);
+            }
         }
     }
 
@@ -64,42 +100,8 @@ public class AnnotationApplicationContext implements ApplicationContext {
         log.debug("开始扫描DAO接口...");
         for (String basePackage : basePackages) {
             log.debug("扫描DAO包: {}", basePackage);
-            scanDAOPackage(basePackage);
-        }
-    }
-
-    private void scanDAOPackage(String packageName) {
-        try {
-            String packagePath = packageName.replace('.', '/');
-            ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
-            URL resource = classLoader.getResource(packagePath);
-
-            if (resource != null) {
-                File directory = new File(resource.getFile());
-                if (directory.exists() && directory.isDirectory()) {
-                    scanDAODirectory(directory, packageName);
-                }
-            }
-        } catch (Exception e) {
-            log.error("扫描DAO包失败: {}, {}", packageName, e.getMessage(),e);
-        }
-    }
-
-    private void scanDAODirectory(File directory, String packageName) {
-        File[] files = directory.listFiles();
-        if (files == null) return;
-
-        for (File file : files) {
-            if (file.isDirectory()) {
-                scanDAODirectory(file, packageName + "." + file.getName());
-            } else if (file.getName().endsWith(".class")) {
-                String className = packageName + "." + file.getName().substring(0, file.getName().length() - 6);
-                try {
-                    Class<?> clazz = Class.forName(className);
-                    processDAOInterface(clazz);
-                } catch (ClassNotFoundException e) {
-                    // 忽略无法加载的类
-                }
+            for (Class<?> clazz : ComponentIndex.getClasses(ComponentIndex.DAO, basePackage)) {
+                processDAOInterface(clazz);
             }
         }
     }
@@ -112,7 +114,7 @@ public class AnnotationApplicationContext implements ApplicationContext {
             singletonObjects.put(beanName, daoProxy);
             BeanDefinition beanDefinition = new BeanDefinition(beanName, clazz);
             beanDefinition.setInstance(daoProxy);
-            beanDefinitionMap.put(beanName, beanDefinition);
+            registerBeanDefinition(beanName, beanDefinition);
         }
     }
 
@@ -128,54 +130,43 @@ public class AnnotationApplicationContext implements ApplicationContext {
 
     @SuppressWarnings("unchecked")
     private <T> T createDAOProxy(Class<T> daoInterface) {
+        // 创建代理时一次性解析所有@SQL方法，调用时只做一次查找
+        Map<Method, DaoMethodDescriptor> descriptors = DaoMethodDescriptor.forInterface(daoInterface);
+        log.debug("解析DAO方法描述符: {}, 方法数量: {}", daoInterface.getSimpleName(), descriptors.size());
+        if (ProxyClassGenerator.isEnabled()) {
+            Object proxy = GeneratedDaoProxy.create(daoInterface, descriptors);
+            if (proxy != null) {
+                return (T) proxy;
+            }
+        }
         return (T) Proxy.newProxyInstance(
             daoInterface.getClassLoader(),
             new Class<?>[]{daoInterface},
             (proxy, method, args) -> {
+                DaoMethodDescriptor descriptor = descriptors.get(method);
+                if (descriptor == null) {
+                    return invokeNonSQLMethod(daoInterface, proxy, method, args);
+                }
                 try {
-                    return SQLExecutor.executeSQL(method, args, method.getReturnType());
+                    return QueryCacheManager.execute(descriptor, args);
                 } catch (Exception e) {
-                    log.error("执行DAO方法失败: {}, {}", method.getDeclaringClass().getName(), e.getMessage(),e);
+                    log.error("执行DAO方法失败: {}, {}", descriptor.getName(), e.getMessage(),e);
                     throw new RuntimeException("执行DAO方法失败: " + method.getName(), e);
                 }
             }
         );
     }
 
-    private void scanPackage(String packageName) {
-        try {
-            String packagePath = packageName.replace('.', '/');
-            ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
-            URL resource = classLoader.getResource(packagePath);
-
-            if (resource != null) {
-                File directory = new File(resource.getFile());
-                if (directory.exists() && directory.isDirectory()) {
-                    scanDirectory(directory, packageName);
-                }
-            }
-        } catch (Exception e) {
-            log.error("扫描包失败: {}, {}", packageName, e.getMessage(),e);
-        }
-    }
-
-    private void scanDirectory(File directory, String packageName) {
-        File[] files = directory.listFiles();
-        if (files == null) return;
-
-        for (File file : files) {
-            if (file.isDirectory()) {
-                scanDirectory(file, packageName + "." + file.getName());
-            } else if (file.getName().endsWith(".class")) {
-                String className = packageName + "." + file.getName().substring(0, file.getName().length() - 6);
-                try {
-                    Class<?> clazz = Class.forName(className);
-                    processClass(clazz);
-                } catch (ClassNotFoundException e) {
-                    // 忽略无法加载的类
-                }
-            }
+    private Object invokeNonSQLMethod(Class<?> daoInterface, Object proxy, Method method, Object[] args) throws Throwable {
+        if (method.isDefault()) {
+            return InvocationHandler.invokeDefault(proxy, method, args);
         }
+        return switch (method.getName()) {
+            case "toString" -> daoInterface.getName() + "$DAOProxy";
+            case "hashCode" -> System.identityHashCode(proxy);
+            case "equals" -> proxy == args[0];
+            default -> throw new RuntimeException("Method must be annotated with @SQL: " + method.getName());
+        };
     }
 
     private void processClass(Class<?> clazz) {
@@ -194,7 +185,7 @@ public class AnnotationApplicationContext implements ApplicationContext {
                 log.debug("Bean {} 标记为懒加载: {}", beanName, lazy.value());
             }
             
-            beanDefinitionMap.put(beanName, beanDefinition);
+            registerBeanDefinition(beanName, beanDefinition);
             log.debug("注册Bean定义: {} -> {}", beanName, clazz.getName());
             
             // 处理@Bean方法
@@ -219,34 +210,302 @@ public class AnnotationApplicationContext implements ApplicationContext {
                     log.debug("Bean方法 {} 标记为懒加载: {}", beanName, lazy.value());
                 }
                 
-                beanDefinitionMap.put(beanName, beanDefinition);
+                registerBeanDefinition(beanName, beanDefinition);
                 log.debug("注册Bean方法定义: {} -> {}.{}", beanName, clazz.getName(), method.getName());
             }
         }
     }
 
+    /**
+     * 同名Bean重复注册时覆盖定义，保留首次注册的位置
+     */
+    private void registerBeanDefinition(String beanName, BeanDefinition beanDefinition) {
+        if (beanDefinitionMap.put(beanName, beanDefinition) == null) {
+            beanDefinitionNames.add(beanName);
+        }
+    }
+
+    private void buildTypeIndex() {
+        Map<Class<?>, List<String>> candidates = new HashMap<>();
+        for (String beanName : beanDefinitionNames) {
+            for (Class<?> type : assignableTypes(beanDefinitionMap.get(beanName).getBeanClass())) {
+                candidates.computeIfAbsent(type, t -> new ArrayList<>(1)).add(beanName);
+            }
+        }
+        Map<Class<?>, String[]> index = new HashMap<>(candidates.size() * 2);
+        candidates.forEach((type, names) -> index.put(type, names.toArray(new String[0])));
+        this.typeIndex = index;
+        log.debug("构建类型索引完成，类型数量: {}", index.size());
+    }
+
+    /**
+     * Bean类型本身及其所有父类和接口（不含Object）
+     */
+    private static Set<Class<?>> assignableTypes(Class<?> beanClass) {
+        Set<Class<?>> types = new LinkedHashSet<>();
+        Deque<Class<?>> pending = new ArrayDeque<>();
+        pending.add(beanClass);
+        while (!pending.isEmpty()) {
+            Class<?> type = pending.poll();
+            if (type == Object.class || !types.add(type)) {
+                continue;
+            }
+            if (type.getSuperclass() != null) {
+                pending.add(type.getSuperclass());
+            }
+            pending.addAll(Arrays.asList(type.getInterfaces()));
+        }
+        return types;
+    }
+
+    /**
+     * 预实例化非懒加载的单例Bean
+     * 按@Autowired字段和@Bean工厂Bean建立依赖图，用Tarjan算法求强连通分量：
+     * 每个分量作为一个创建单元（大小超过1即循环依赖，由同一线程借助三级缓存创建），
+     * 单元在其依赖的单元全部完成后提交到ForkJoinPool，互不依赖的子图并行创建
+     */
     private void preInstantiateSingletons() {
         log.debug("开始预实例化单例Bean...");
-        List<String> beanNames = new ArrayList<>(beanDefinitionMap.keySet());
-        
-        for (String beanName : beanNames) {
+        long start = System.nanoTime();
+        Map<String, List<String>> graph = buildDependencyGraph();
+        List<List<String>> units = stronglyConnectedComponents(graph);
+        for (List<String> unit : units) {
+            if (unit.size() > 1 || graph.get(unit.get(0)).contains(unit.get(0))) {
+                log.warn("检测到循环依赖: {}", describeCycle(unit, graph));
+            }
+        }
+
+        if (parallelInit && units.size() > 1) {
+            instantiateInParallel(units, graph);
+        } else {
+            // Tarjan输出的分量已是依赖在前的拓扑序
+            for (List<String> unit : units) {
+                instantiateUnit(unit);
+            }
+        }
+
+        log.info("预实例化完成，共 {} 个Bean，{} 个创建单元，耗时 {}ms",
+                graph.size(), units.size(), (System.nanoTime() - start) / 1_000_000);
+        if (log.isDebugEnabled()) {
+            for (Map<String, Object> timing : getBeanCreationTimes()) {
+                log.debug("Bean创建耗时: {} {}ms", timing.get("bean"), timing.get("timeMs"));
+            }
+        }
+    }
+
+    /**
+     * 依赖图：非懒加载单例及其传递依赖 -> 直接依赖的Bean名称
+     */
+    private Map<String, List<String>> buildDependencyGraph() {
+        Map<String, List<String>> graph = new LinkedHashMap<>();
+        Deque<String> pending = new ArrayDeque<>();
+        for (String beanName : beanDefinitionNames) {
             BeanDefinition beanDefinition = beanDefinitionMap.get(beanName);
-            // 只有非懒加载的单例Bean才会在启动时初始化
             if (beanDefinition.isSingleton() && !beanDefinition.isLazy()) {
-                try {
-                    getBean(beanName);
-                } catch (Exception e) {
-                    log.error("预实例化Bean失败: {}, 错误: {}", beanName, e.getMessage(), e);
-                }
+                pending.add(beanName);
             } else if (beanDefinition.isLazy()) {
                 log.debug("跳过懒加载Bean的预实例化: {}", beanName);
             }
         }
-        log.debug("预实例化完成");
+        while (!pending.isEmpty()) {
+            String beanName = pending.poll();
+            if (graph.containsKey(beanName) || singletonObjects.containsKey(beanName)) {
+                continue;
+            }
+            List<String> dependencies = dependenciesOf(beanDefinitionMap.get(beanName));
+            graph.put(beanName, dependencies);
+            pending.addAll(dependencies);
+        }
+        // 已存在的单例（DAO代理等）不参与创建
+        graph.values().forEach(dependencies -> dependencies.removeIf(dependency -> !graph.containsKey(dependency)));
+        return graph;
+    }
+
+    private List<String> dependenciesOf(BeanDefinition beanDefinition) {
+        List<String> dependencies = new ArrayList<>();
+        if (beanDefinition.getFactoryMethod() != null) {
+            if (beanDefinition.getFactoryBean() instanceof String factoryBeanName) {
+                dependencies.add(factoryBeanName);
+            }
+            return dependencies;
+        }
+        for (Field field : beanDefinition.getBeanClass().getDeclaredFields()) {
+            if (field.isAnnotationPresent(Autowired.class)) {
+                String candidate = beanNameForType(field.getType());
+                if (candidate != null) {
+                    BeanDefinition dependency = beanDefinitionMap.get(candidate);
+                    if (dependency != null && dependency.isSingleton()) {
+                        dependencies.add(candidate);
+                    }
+                }
+            }
+        }
+        return dependencies;
+    }
+
+    /**
+     * Tarjan强连通分量，按依赖在前的顺序输出（迭代实现，避免深依赖链导致栈溢出）
+     */
+    private static List<List<String>> stronglyConnectedComponents(Map<String, List<String>> graph) {
+        Map<String, Integer> index = new HashMap<>();
+        Map<String, Integer> lowLink = new HashMap<>();
+        Set<String> onStack = new HashSet<>();
+        Deque<String> stack = new ArrayDeque<>();
+        List<List<String>> components = new ArrayList<>();
+        int counter = 0;
+
+        for (String root : graph.keySet()) {
+            if (index.containsKey(root)) {
+                continue;
+            }
+            // 调用栈帧：节点及下一个待访问的边下标
+            Deque<Map.Entry<String, Integer>> frames = new ArrayDeque<>();
+            frames.push(new AbstractMap.SimpleEntry<>(root, 0));
+            index.put(root, counter);
+            lowLink.put(root, counter++);
+            stack.push(root);
+            onStack.add(root);
+
+            while (!frames.isEmpty()) {
+                Map.Entry<String, Integer> frame = frames.peek();
+                String node = frame.getKey();
+                List<String> edges = graph.get(node);
+                int edge = frame.getValue();
+                if (edge < edges.size()) {
+                    frame.setValue(edge + 1);
+                    String next = edges.get(edge);
+                    if (!index.containsKey(next)) {
+                        index.put(next, counter);
+                        lowLink.put(next, counter++);
+                        stack.push(next);
+                        onStack.add(next);
+                        frames.push(new AbstractMap.SimpleEntry<>(next, 0));
+                    } else if (onStack.contains(next)) {
+                        lowLink.put(node, Math.min(lowLink.get(node), index.get(next)));
+                    }
+                    continue;
+                }
+                frames.pop();
+                if (!frames.isEmpty()) {
+                    String parent = frames.peek().getKey();
+                    lowLink.put(parent, Math.min(lowLink.get(parent), lowLink.get(node)));
+                }
+                if (lowLink.get(node).equals(index.get(node))) {
+                    List<String> component = new ArrayList<>();
+                    String member;
+                    do {
+                        member = stack.pop();
+                        onStack.remove(member);
+                        component.add(member);
+                    } while (!member.equals(node));
+                    components.add(component);
+                }
+            }
+        }
+        return components;
+    }
+
+    /**
+     * 在强连通分量内找出一条具体的环路，形如 a -> b -> a
+     */
+    private static String describeCycle(List<String> component, Map<String, List<String>> graph) {
+        String start = component.get(0);
+        Set<String> members = new HashSet<>(component);
+        Map<String, String> previous = new HashMap<>();
+        Deque<String> queue = new ArrayDeque<>();
+        queue.add(start);
+        while (!queue.isEmpty()) {
+            String node = queue.poll();
+            for (String next : graph.get(node)) {
+                if (next.equals(start)) {
+                    LinkedList<String> path = new LinkedList<>();
+                    path.addFirst(start);
+                    for (String step = node; step != null; step = previous.get(step)) {
+                        path.addFirst(step);
+                    }
+                    return String.join(" -> ", path);
+                }
+                if (members.contains(next) && !previous.containsKey(next) && !next.equals(start)) {
+                    previous.put(next, node);
+                    queue.add(next);
+                }
+            }
+        }
+        return String.join(", ", component);
+    }
+
+    private void instantiateInParallel(List<List<String>> units, Map<String, List<String>> graph) {
+        Map<String, CompletableFuture<Void>> futures = new HashMap<>();
+        ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+        ForkJoinPool pool = new ForkJoinPool(Math.min(units.size(), Runtime.getRuntime().availableProcessors()));
+        try {
+            for (List<String> unit : units) {
+                Set<String> members = new HashSet<>(unit);
+                List<CompletableFuture<Void>> prerequisites = new ArrayList<>();
+                for (String member : unit) {
+                    for (String dependency : graph.get(member)) {
+                        if (!members.contains(dependency)) {
+                            prerequisites.add(futures.get(dependency));
+                        }
+                    }
+                }
+                CompletableFuture<Void> future = CompletableFuture
+                        .allOf(prerequisites.toArray(new CompletableFuture[0]))
+                        .handleAsync((ignored, failure) -> {
+                            Thread thread = Thread.currentThread();
+                            ClassLoader previous = thread.getContextClassLoader();
+                            thread.setContextClassLoader(classLoader);
+                            try {
+                                instantiateUnit(unit);
+                            } finally {
+                                thread.setContextClassLoader(previous);
+                            }
+                            return null;
+                        }, pool);
+                for (String member : unit) {
+                    futures.put(member, future);
+                }
+            }
+            CompletableFuture.allOf(futures.values().toArray(new CompletableFuture[0])).join();
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private void instantiateUnit(List<String> unit) {
+        for (String beanName : unit) {
+            try {
+                getBean(beanName);
+            } catch (Exception e) {
+                log.error("预实例化Bean失败: {}, 错误: {}", beanName, e.getMessage(), e);
+            }
+        }
+    }
+
+    /**
+     * 各单例Bean的创建耗时，按耗时降序
+     */
+    public List<Map<String, Object>> getBeanCreationTimes() {
+        List<Map.Entry<String, Long>> entries = new ArrayList<>(creationTimes.entrySet());
+        entries.sort(Map.Entry.<String, Long>comparingByValue().reversed());
+        List<Map<String, Object>> timings = new ArrayList<>(entries.size());
+        for (Map.Entry<String, Long> entry : entries) {
+            Map<String, Object> timing = new LinkedHashMap<>();
+            timing.put("bean", entry.getKey());
+            timing.put("timeMs", entry.getValue() / 1_000_000.0);
+            timings.add(timing);
+        }
+        return timings;
     }
 
     @Override
     public Object getBean(String beanName) {
+        // 已完成的单例直接从一级缓存读取，不加锁
+        Object singleton = singletonObjects.get(beanName);
+        if (singleton != null) {
+            return singleton;
+        }
+
         BeanDefinition beanDefinition = beanDefinitionMap.get(beanName);
         if (beanDefinition == null) {
             throw new RuntimeException("Bean not found: " + beanName);
@@ -291,37 +550,38 @@ public class AnnotationApplicationContext implements ApplicationContext {
 
     /**
      * 获取单例对象，支持循环依赖
+     * 只对正在创建的Bean加锁：不同Bean可在多个线程上并行创建，其他线程等待同一Bean创建完成后取完成品，
+     * 只有创建线程自身（循环依赖）才会拿到早期引用
      */
     private Object getSingleton(String beanName, Supplier<Object> singletonFactory) {
-        synchronized (this.singletonObjects) {
-            Object singletonObject = this.singletonObjects.get(beanName);
-            if (singletonObject == null) {
-                // 检查二级缓存
-                singletonObject = this.earlySingletonObjects.get(beanName);
-                if (singletonObject == null) {
-                    // 检查三级缓存
-                    ObjectFactory<?> singletonFactory3 = this.singletonFactories.get(beanName);
-                    if (singletonFactory3 != null) {
-                        singletonObject = singletonFactory3.getObject();
-                        // 从三级缓存移到二级缓存
-                        this.earlySingletonObjects.put(beanName, singletonObject);
-                        this.singletonFactories.remove(beanName);
-                    } else {
-                        // 开始创建Bean
-                        beforeSingletonCreation(beanName);
-                        try {
-                            singletonObject = singletonFactory.get();
-                        } catch (Exception ex) {
-                            log.error("创建单例Bean失败: {}", beanName, ex);
-                            throw ex;
-                        } finally {
-                            afterSingletonCreation(beanName);
-                        }
-                        // 将完成的Bean放入一级缓存
-                        addSingleton(beanName, singletonObject);
-                    }
-                }
+        Object singletonObject = getSingleton(beanName);
+        if (singletonObject != null) {
+            return singletonObject;
+        }
+        synchronized (creationLocks.computeIfAbsent(beanName, name -> new Object())) {
+            singletonObject = getSingleton(beanName);
+            if (singletonObject != null) {
+                return singletonObject;
+            }
+            // 开始创建Bean
+            beforeSingletonCreation(beanName);
+            long[] nested = nestedCreationNanos.get();
+            long nestedBefore = nested[0];
+            long start = System.nanoTime();
+            try {
+                singletonObject = singletonFactory.get();
+            } catch (Exception ex) {
+                log.error("创建单例Bean失败: {}", beanName, ex);
+                throw ex;
+            } finally {
+                afterSingletonCreation(beanName);
+                long elapsed = System.nanoTime() - start;
+                // 只记录自身耗时，创建过程中顺带创建的依赖Bean各自计时
+                creationTimes.put(beanName, elapsed - (nested[0] - nestedBefore));
+                nested[0] = nestedBefore + elapsed;
             }
+            // 将完成的Bean放入一级缓存
+            addSingleton(beanName, singletonObject);
             return singletonObject;
         }
     }
@@ -330,9 +590,9 @@ public class AnnotationApplicationContext implements ApplicationContext {
      * 单例创建前的准备工作
      */
     private void beforeSingletonCreation(String beanName) {
-        if (!this.singletonsCurrentlyInCreation.add(beanName)) {
+        if (this.singletonsCurrentlyInCreation.putIfAbsent(beanName, Thread.currentThread()) != null) {
             // 检测到循环依赖时，记录警告但允许继续创建
-            log.warn("检测到循环依赖: {}, 当前创建中的Bean: {}", beanName, this.singletonsCurrentlyInCreation);
+            log.warn("检测到循环依赖: {}, 当前创建中的Bean: {}", beanName, this.singletonsCurrentlyInCreation.keySet());
         }
     }
 
@@ -340,16 +600,16 @@ public class AnnotationApplicationContext implements ApplicationContext {
      * 单例创建后的清理工作
      */
     private void afterSingletonCreation(String beanName) {
-        if (!this.singletonsCurrentlyInCreation.remove(beanName)) {
+        if (this.singletonsCurrentlyInCreation.remove(beanName) == null) {
             log.warn("单例Bean创建完成，但未在创建列表中找到: {}", beanName);
         }
     }
 
     /**
-     * 检查Bean是否正在创建中
+     * 检查Bean是否正由当前线程创建中
      */
     private boolean isSingletonCurrentlyInCreation(String beanName) {
-        return this.singletonsCurrentlyInCreation.contains(beanName);
+        return this.singletonsCurrentlyInCreation.get(beanName) == Thread.currentThread();
     }
 
     /**
@@ -389,52 +649,31 @@ public class AnnotationApplicationContext implements ApplicationContext {
                 bean = beanDefinition.getBeanClass().getDeclaredConstructor().newInstance();
             }
             
-            // 立即将早期Bean引用放入三级缓存（解决循环依赖的关键）
+            // 立即将早期Bean引用放入三级缓存（解决循环依赖的关键）；
+            // 早期引用同样经过拦截链，循环依赖的另一方拿到的也是代理
             if (beanDefinition.isSingleton()) {
                 Object finalBean = bean;
-                addSingletonFactory(beanName, () -> finalBean);
+                addSingletonFactory(beanName, () -> InterceptorChain.apply(finalBean, interceptors));
             }
             
             // 属性填充
             populateBean(bean, beanDefinition);
             
-            // 应用验证拦截器（新增）
-            if (needsValidationProxy(bean)) {
-                bean = site.arookieofc.processor.validation.ValidationInterceptor.createProxy(bean);
+            // 应用拦截链；若早期引用已被依赖方取走，沿用同一个代理
+            if (beanDefinition.isSingleton()) {
+                synchronized (this.singletonObjects) {
+                    Object earlyReference = this.earlySingletonObjects.get(beanName);
+                    if (earlyReference != null) {
+                        return earlyReference;
+                    }
+                }
             }
-            
-            return bean;
+            return InterceptorChain.apply(bean, interceptors);
         } catch (Exception e) {
             log.error("创建Bean失败: {}", beanName, e);
             throw new RuntimeException("创建Bean失败: " + beanName, e);
         }
     }
-    
-    // 新增方法：检查是否需要验证代理
-    private boolean needsValidationProxy(Object bean) {
-        Class<?> clazz = bean.getClass();
-        Method[] methods = clazz.getDeclaredMethods();
-        
-        for (Method method : methods) {
-            Parameter[] parameters = method.getParameters();
-            for (Parameter parameter : parameters) {
-                if (hasValidationAnnotation(parameter)) {
-                    return true;
-                }
-            }
-        }
-        return false;
-    }
-    
-    // 新增方法：检查参数是否有验证注解
-    private boolean hasValidationAnnotation(Parameter parameter) {
-        return parameter.isAnnotationPresent(site.arookieofc.annotation.validation.Need.class) ||
-               parameter.isAnnotationPresent(site.arookieofc.annotation.validation.NotNull.class) ||
-               parameter.isAnnotationPresent(site.arookieofc.annotation.validation.NotEmpty.class) ||
-               parameter.isAnnotationPresent(site.arookieofc.annotation.validation.Range.class) ||
-               parameter.isAnnotationPresent(site.arookieofc.annotation.validation.Size.class) ||
-               parameter.isAnnotationPresent(site.arookieofc.annotation.validation.Exists.class);
-    }
 
     /**
      * 填充Bean的属性（依赖注入）
@@ -495,13 +734,23 @@ public class AnnotationApplicationContext implements ApplicationContext {
     }
 
     private Object getBeanByType(Class<?> type) {
-        for (Map.Entry<String, BeanDefinition> entry : beanDefinitionMap.entrySet()) {
-            BeanDefinition beanDefinition = entry.getValue();
-            if (type.isAssignableFrom(beanDefinition.getBeanClass())) {
-                return getBean(entry.getKey());
-            }
+        String beanName = beanNameForType(type);
+        return beanName == null ? null : getBean(beanName);
+    }
+
+    /**
+     * 按类型查找Bean名称；有多个候选时使用最先注册的Bean，并对该类型警告一次
+     */
+    private String beanNameForType(Class<?> type) {
+        String[] beanNames = typeIndex.get(type);
+        if (beanNames == null) {
+            return null;
+        }
+        if (beanNames.length > 1 && ambiguousTypes.add(type)) {
+            log.warn("类型 {} 有 {} 个候选Bean: {}，使用最先注册的 {}",
+                    type.getName(), beanNames.length, String.join(", ", beanNames), beanNames[0]);
         }
-        return null;
+        return beanNames[0];
     }
 
     @Override
@@ -0,0 +1,21 @@
+package site.arookieofc.processor.proxy;
+
+/**
+ * 生成代理类的父类
+ * ProxyClassGenerator生成的类继承本类的子类：直接转发的方法读取target字段并以invokeinterface调用，
+ * 需要拦截的方法把参数装入数组后调用dispatch，由子类按方法序号处理
+ */
+public abstract class GeneratedProxy {
+
+    protected final Object target;
+
+    protected GeneratedProxy(Object target) {
+        this.target = target;
+    }
+
+    /**
+     * @param index 生成代理时为该方法分配的序号
+     * @param args  调用参数，无参方法为空数组
+     */
+    protected abstract Object dispatch(int index, Object[] args) throws Throwable;
+}
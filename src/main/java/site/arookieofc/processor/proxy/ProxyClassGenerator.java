@@ -0,0 +1,472 @@
+package site.arookieofc.processor.proxy;
+
+import lombok.extern.slf4j.Slf4j;
+import site.arookieofc.annotation.config.Config;
+import site.arookieofc.processor.config.ConfigProcessor;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 代理类生成器
+ * 为接口直接生成实现类的字节码，以隐藏类定义在宿主类所在的包中：
+ * 不需要拦截的方法编译为对目标对象的invokeinterface调用，需要拦截的方法按序号调用dispatch，
+ * 调用时没有InvocationHandler的Method查表和Method.invoke反射。
+ * 生成的方法体不含分支，不需要StackMapTable；不声明的受检异常会原样抛出，而不是包装为UndeclaredThrowableException
+ */
+@Slf4j
+public final class ProxyClassGenerator {
+
+    static {
+        ConfigProcessor.injectStaticFields(ProxyClassGenerator.class);
+    }
+
+    @Config(value = "aop.proxy-engine", defaultValue = "jdk")
+    private static String engine;
+
+    /**
+     * 直接调用target字段上的同名接口方法
+     */
+    public static final int DIRECT = -1;
+
+    /**
+     * 调用接口的default实现
+     */
+    public static final int DEFAULT = -2;
+
+    private static final int CLASS_VERSION = 61;
+    private static final int ACC_PUBLIC = 0x0001;
+    private static final int ACC_FINAL = 0x0010;
+    private static final int ACC_SUPER = 0x0020;
+
+    private static final String BASE = "site/arookieofc/processor/proxy/GeneratedProxy";
+    private static final String OBJECT = "java/lang/Object";
+
+    private ProxyClassGenerator() {
+    }
+
+    /**
+     * aop.proxy-engine为generated时使用生成的代理类，默认jdk使用JDK动态代理
+     */
+    public static boolean isEnabled() {
+        return "generated".equalsIgnoreCase(engine);
+    }
+
+    /**
+     * 生成并定义代理类
+     *
+     * @param host       代理类定义在它所在的包中，并使用它的类加载器
+     * @param superclass 代理类的父类，需有(Object)构造器
+     * @param interfaces 代理类实现的接口
+     * @param methods    需要实现的方法，同一签名只生成一次，以先出现的为准
+     * @param bindings   与methods一一对应：DIRECT、DEFAULT或传给dispatch的序号
+     * @return (Object)Object形式的构造器句柄；无法生成时返回null，由调用方退回JDK代理
+     */
+    public static MethodHandle define(Class<?> host, Class<? extends GeneratedProxy> superclass,
+                                      Class<?>[] interfaces, Method[] methods, int[] bindings) {
+        String problem = checkAccess(host, superclass, interfaces, methods);
+        if (problem != null) {
+            log.warn("无法为 {} 生成代理类，退回JDK代理: {}", host.getName(), problem);
+            return null;
+        }
+        try {
+            byte[] bytes = generate(internalName(host) + "$$Proxy", superclass, interfaces, methods, bindings);
+            MethodHandles.Lookup lookup = MethodHandles.privateLookupIn(host, MethodHandles.lookup())
+                    .defineHiddenClass(bytes, true);
+            log.debug("为 {} 生成代理类 {}, 字节码长度: {}", host.getName(), lookup.lookupClass().getName(), bytes.length);
+            return lookup.findConstructor(lookup.lookupClass(), MethodType.methodType(void.class, Object.class))
+                    .asType(MethodType.methodType(Object.class, Object.class));
+        } catch (ReflectiveOperationException | LinkageError | IllegalArgumentException | IOException e) {
+            log.warn("无法为 {} 生成代理类，退回JDK代理: {}", host.getName(), e.toString());
+            return null;
+        }
+    }
+
+    /**
+     * 生成的类位于宿主的包中，接口、方法参数和返回值类型都必须能从该包访问
+     */
+    private static String checkAccess(Class<?> host, Class<?> superclass, Class<?>[] interfaces, Method[] methods) {
+        if (!Modifier.isPublic(superclass.getModifiers())) {
+            return "父类不是public: " + superclass.getName();
+        }
+        for (Class<?> iface : interfaces) {
+            if (!accessible(host, iface)) {
+                return "接口不可访问: " + iface.getName();
+            }
+        }
+        for (Method method : methods) {
+            if (!accessible(host, method.getDeclaringClass()) || !accessible(host, method.getReturnType())) {
+                return "方法不可访问: " + method;
+            }
+            for (Class<?> type : method.getParameterTypes()) {
+                if (!accessible(host, type)) {
+                    return "参数类型不可访问: " + method;
+                }
+            }
+        }
+        return null;
+    }
+
+    private static boolean accessible(Class<?> host, Class<?> type) {
+        while (type.isArray()) {
+            type = type.getComponentType();
+        }
+        return type.isPrimitive() || Modifier.isPublic(type.getModifiers())
+                || (type.getClassLoader() == host.getClassLoader() && type.getPackageName().equals(host.getPackageName()));
+    }
+
+    private static byte[] generate(String className, Class<?> superclass, Class<?>[] interfaces,
+                                   Method[] methods, int[] bindings) throws IOException {
+        ConstantPool pool = new ConstantPool();
+        int thisClass = pool.classRef(className);
+        int superClass = pool.classRef(internalName(superclass));
+
+        // 按签名去重；调用default实现的invokespecial要求声明接口是直接父接口
+        Map<String, Integer> unique = new LinkedHashMap<>();
+        Set<Class<?>> implemented = new LinkedHashSet<>(List.of(interfaces));
+        for (int i = 0; i < methods.length; i++) {
+            if (unique.putIfAbsent(methods[i].getName() + descriptor(methods[i]), i) == null && bindings[i] == DEFAULT) {
+                implemented.add(methods[i].getDeclaringClass());
+            }
+        }
+
+        List<byte[]> methodInfos = new ArrayList<>(unique.size() + 1);
+        methodInfos.add(constructor(pool, internalName(superclass)));
+        for (int i : unique.values()) {
+            methodInfos.add(method(pool, methods[i], bindings[i]));
+        }
+
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(1024);
+        DataOutputStream out = new DataOutputStream(buffer);
+        out.writeInt(0xCAFEBABE);
+        out.writeShort(0);
+        out.writeShort(CLASS_VERSION);
+        // 接口引用需要在写出常量池之前登记
+        int[] interfaceRefs = new int[implemented.size()];
+        int n = 0;
+        for (Class<?> iface : implemented) {
+            interfaceRefs[n++] = pool.classRef(internalName(iface));
+        }
+        pool.writeTo(out);
+        out.writeShort(ACC_PUBLIC | ACC_FINAL | ACC_SUPER);
+        out.writeShort(thisClass);
+        out.writeShort(superClass);
+        out.writeShort(interfaceRefs.length);
+        for (int ref : interfaceRefs) {
+            out.writeShort(ref);
+        }
+        out.writeShort(0);
+        out.writeShort(methodInfos.size());
+        for (byte[] info : methodInfos) {
+            out.write(info);
+        }
+        out.writeShort(0);
+        out.flush();
+        return buffer.toByteArray();
+    }
+
+    private static byte[] constructor(ConstantPool pool, String superclass) throws IOException {
+        Code code = new Code();
+        code.op(0x2a);                                                         // aload_0
+        code.op(0x2b);                                                         // aload_1
+        code.op(0xb7).u2(pool.methodRef(superclass, "<init>", "(Ljava/lang/Object;)V", false));
+        code.op(0xb1);                                                         // return
+        return methodInfo(pool, ACC_PUBLIC, "<init>", "(Ljava/lang/Object;)V", code, 2, 2);
+    }
+
+    private static byte[] method(ConstantPool pool, Method method, int binding) throws IOException {
+        Class<?>[] parameterTypes = method.getParameterTypes();
+        Class<?> returnType = method.getReturnType();
+        String owner = internalName(method.getDeclaringClass());
+        String descriptor = descriptor(method);
+        int slots = 0;
+        for (Class<?> type : parameterTypes) {
+            slots += slotSize(type);
+        }
+
+        Code code = new Code();
+        int maxStack;
+        if (binding == DIRECT) {
+            code.op(0x2a);                                                     // aload_0
+            code.op(0xb4).u2(pool.fieldRef(BASE, "target", "Ljava/lang/Object;"));
+            code.op(0xc0).u2(pool.classRef(owner));                            // checkcast
+            loadParameters(code, parameterTypes);
+            code.op(0xb9).u2(pool.methodRef(owner, method.getName(), descriptor, true)).u1(slots + 1).u1(0);
+            code.op(returnOpcode(returnType));
+            maxStack = Math.max(slots + 1, slotSize(returnType));
+        } else if (binding == DEFAULT) {
+            code.op(0x2a);                                                     // aload_0
+            loadParameters(code, parameterTypes);
+            code.op(0xb7).u2(pool.methodRef(owner, method.getName(), descriptor, true));
+            code.op(returnOpcode(returnType));
+            maxStack = Math.max(slots + 1, slotSize(returnType));
+        } else {
+            code.op(0x2a);                                                     // aload_0
+            pushInt(code, binding);
+            pushInt(code, parameterTypes.length);
+            code.op(0xbd).u2(pool.classRef(OBJECT));                           // anewarray
+            int slot = 1;
+            for (int i = 0; i < parameterTypes.length; i++) {
+                code.op(0x59);                                                 // dup
+                pushInt(code, i);
+                load(code, parameterTypes[i], slot);
+                box(code, pool, parameterTypes[i]);
+                code.op(0x53);                                                 // aastore
+                slot += slotSize(parameterTypes[i]);
+            }
+            code.op(0xb6).u2(pool.methodRef(BASE, "dispatch", "(I[Ljava/lang/Object;)Ljava/lang/Object;", false));
+            unboxReturn(code, pool, returnType);
+            // this、序号、数组、dup、下标、long/double参数
+            maxStack = 7;
+        }
+        return methodInfo(pool, ACC_PUBLIC | ACC_FINAL, method.getName(), descriptor, code, maxStack, slots + 1);
+    }
+
+    private static void loadParameters(Code code, Class<?>[] parameterTypes) {
+        int slot = 1;
+        for (Class<?> type : parameterTypes) {
+            load(code, type, slot);
+            slot += slotSize(type);
+        }
+    }
+
+    private static void load(Code code, Class<?> type, int slot) {
+        int opcode;
+        if (type == long.class) {
+            opcode = 0x16;                                                     // lload
+        } else if (type == float.class) {
+            opcode = 0x17;                                                     // fload
+        } else if (type == double.class) {
+            opcode = 0x18;                                                     // dload
+        } else if (type.isPrimitive()) {
+            opcode = 0x15;                                                     // iload
+        } else {
+            opcode = 0x19;                                                     // aload
+        }
+        code.op(opcode).u1(slot);
+    }
+
+    private static void box(Code code, ConstantPool pool, Class<?> type) {
+        if (type.isPrimitive()) {
+            String wrapper = internalName(wrapper(type));
+            code.op(0xb8).u2(pool.methodRef(wrapper, "valueOf",
+                    "(" + descriptor(type) + ")L" + wrapper + ";", false));
+        }
+    }
+
+    /**
+     * dispatch返回的Object转换为方法的返回类型：基本类型拆箱，引用类型checkcast，void丢弃
+     */
+    private static void unboxReturn(Code code, ConstantPool pool, Class<?> returnType) {
+        if (returnType == void.class) {
+            code.op(0x57);                                                     // pop
+        } else if (returnType.isPrimitive()) {
+            String wrapper = internalName(wrapper(returnType));
+            code.op(0xc0).u2(pool.classRef(wrapper));
+            code.op(0xb6).u2(pool.methodRef(wrapper, returnType.getName() + "Value",
+                    "()" + descriptor(returnType), false));
+        } else if (returnType != Object.class) {
+            code.op(0xc0).u2(pool.classRef(internalName(returnType)));
+        }
+        code.op(returnOpcode(returnType));
+    }
+
+    private static int returnOpcode(Class<?> type) {
+        if (type == void.class) {
+            return 0xb1;                                                       // return
+        } else if (type == long.class) {
+            return 0xad;                                                       // lreturn
+        } else if (type == float.class) {
+            return 0xae;                                                       // freturn
+        } else if (type == double.class) {
+            return 0xaf;                                                       // dreturn
+        } else if (type.isPrimitive()) {
+            return 0xac;                                                       // ireturn
+        }
+        return 0xb0;                                                           // areturn
+    }
+
+    private static void pushInt(Code code, int value) {
+        if (value <= 5) {
+            code.op(0x03 + value);                                             // iconst_<n>
+        } else if (value <= Byte.MAX_VALUE) {
+            code.op(0x10).u1(value);                                           // bipush
+        } else {
+            code.op(0x11).u2(value);                                           // sipush
+        }
+    }
+
+    private static byte[] methodInfo(ConstantPool pool, int access, String name, String descriptor,
+                                     Code code, int maxStack, int maxLocals) throws IOException {
+        byte[] bytecode = code.toByteArray();
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(bytecode.length + 32);
+        DataOutputStream out = new DataOutputStream(buffer);
+        out.writeShort(access);
+        out.writeShort(pool.utf8(name));
+        out.writeShort(pool.utf8(descriptor));
+        out.writeShort(1);
+        out.writeShort(pool.utf8("Code"));
+        out.writeInt(12 + bytecode.length);
+        out.writeShort(maxStack);
+        out.writeShort(maxLocals);
+        out.writeInt(bytecode.length);
+        out.write(bytecode);
+        out.writeShort(0);                                                     // exception_table_length
+        out.writeShort(0);                                                     // attributes_count
+        out.flush();
+        return buffer.toByteArray();
+    }
+
+    private static int slotSize(Class<?> type) {
+        if (type == void.class) {
+            return 0;
+        }
+        return type == long.class || type == double.class ? 2 : 1;
+    }
+
+    private static Class<?> wrapper(Class<?> primitive) {
+        return MethodType.methodType(primitive).wrap().returnType();
+    }
+
+    private static String internalName(Class<?> type) {
+        return type.getName().replace('.', '/');
+    }
+
+    private static String descriptor(Method method) {
+        return MethodType.methodType(method.getReturnType(), method.getParameterTypes()).toMethodDescriptorString();
+    }
+
+    private static String descriptor(Class<?> type) {
+        return type.descriptorString();
+    }
+
+    /**
+     * 方法体字节码
+     */
+    private static final class Code {
+
+        private final ByteArrayOutputStream bytes = new ByteArrayOutputStream(64);
+
+        Code op(int opcode) {
+            bytes.write(opcode);
+            return this;
+        }
+
+        Code u1(int value) {
+            bytes.write(value);
+            return this;
+        }
+
+        Code u2(int value) {
+            bytes.write(value >>> 8);
+            bytes.write(value);
+            return this;
+        }
+
+        byte[] toByteArray() {
+            return bytes.toByteArray();
+        }
+    }
+
+    /**
+     * 常量池，相同的常量只登记一次
+     */
+    private static final class ConstantPool {
+
+        private final ByteArrayOutputStream buffer = new ByteArrayOutputStream(512);
+        private final DataOutputStream out = new DataOutputStream(buffer);
+        private final Map<String, Integer> indexes = new HashMap<>();
+        private int count = 1;
+
+        int utf8(String value) {
+            Integer index = indexes.get("U" + value);
+            if (index != null) {
+                return index;
+            }
+            try {
+                out.writeByte(1);
+                out.writeUTF(value);
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+            return register("U" + value);
+        }
+
+        int classRef(String internalName) {
+            Integer index = indexes.get("C" + internalName);
+            if (index != null) {
+                return index;
+            }
+            int name = utf8(internalName);
+            write(7, name);
+            return register("C" + internalName);
+        }
+
+        int fieldRef(String owner, String name, String descriptor) {
+            return memberRef(9, owner, name, descriptor);
+        }
+
+        int methodRef(String owner, String name, String descriptor, boolean isInterface) {
+            return memberRef(isInterface ? 11 : 10, owner, name, descriptor);
+        }
+
+        private int memberRef(int tag, String owner, String name, String descriptor) {
+            String key = tag + owner + "." + name + descriptor;
+            Integer index = indexes.get(key);
+            if (index != null) {
+                return index;
+            }
+            int ownerRef = classRef(owner);
+            int nameAndType = nameAndType(name, descriptor);
+            write(tag, ownerRef, nameAndType);
+            return register(key);
+        }
+
+        private int nameAndType(String name, String descriptor) {
+            String key = "N" + name + ":" + descriptor;
+            Integer index = indexes.get(key);
+            if (index != null) {
+                return index;
+            }
+            int nameRef = utf8(name);
+            int descriptorRef = utf8(descriptor);
+            write(12, nameRef, descriptorRef);
+            return register(key);
+        }
+
+        private void write(int tag, int... refs) {
+            try {
+                out.writeByte(tag);
+                for (int ref : refs) {
+                    out.writeShort(ref);
+                }
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+
+        private int register(String key) {
+            int index = count++;
+            indexes.put(key, index);
+            return index;
+        }
+
+        void writeTo(DataOutputStream target) throws IOException {
+            out.flush();
+            target.writeShort(count);
+            buffer.writeTo(target);
+        }
+    }
+}
@@ -0,0 +1,386 @@
+package site.arookieofc.processor.sql;
+
+import lombok.Getter;
+import site.arookieofc.annotation.sql.Cached;
+import site.arookieofc.annotation.sql.SQL;
+import site.arookieofc.utils.BeanAccessors;
+import java.lang.reflect.Method;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.UnaryOperator;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * DAO方法描述符
+ * 在创建DAO代理时一次性解析@SQL注解、语句类型、返回值形态和参数绑定器，
+ * 调用阶段只需一次Map查找即可执行
+ */
+@Getter
+public class DaoMethodDescriptor {
+
+    /**
+     * 查询结果的返回形态
+     */
+    public enum ResultShape {
+        OPTIONAL_ENTITY,
+        OPTIONAL_LIST,
+        LIST,
+        SCALAR,
+        ENTITY,
+        UPDATE_COUNT,
+        UPDATE_BOOLEAN,
+        BATCH_COUNTS,
+        VOID,
+        STREAM,
+        ITERATOR,
+        CONSUMER;
+
+        /**
+         * 结果集需要在方法返回后继续保持打开
+         */
+        public boolean isCursor() {
+            return this == STREAM || this == ITERATOR;
+        }
+    }
+
+    /**
+     * 批量模式下将单个元素绑定为一组语句参数
+     */
+    @FunctionalInterface
+    public interface ElementBinder {
+        void bind(PreparedStatement stmt, Object element) throws SQLException;
+    }
+
+    private static final Pattern TABLE_PATTERN =
+            Pattern.compile("\\b(?:FROM|JOIN|INTO|UPDATE)\\s+`?(\\w+)`?", Pattern.CASE_INSENSITIVE);
+
+    private final String name;
+    private final String sql;
+    private final SqlType type;
+    private final ResultShape shape;
+    private final Class<?> returnType;
+    private final Class<?> elementType;
+    private final ParameterBinder[] binders;
+    private final boolean batch;
+    private final int batchSize;
+    private final ElementBinder elementBinder;
+    private final int fetchSize;
+
+    /**
+     * 集合参数对应的占位符在执行时展开为"?, ?, ..."，用于IN查询
+     */
+    private final boolean expandsCollections;
+
+    @Getter(lombok.AccessLevel.NONE)
+    private final boolean[] collectionParameters;
+
+    @Getter(lombok.AccessLevel.NONE)
+    private final String[] sqlFragments;
+
+    /**
+     * SQL涉及的表名（小写），用于缓存失效
+     */
+    private final Set<String> tables;
+
+    /**
+     * 标注@Cached的查询方法的缓存，其余为null
+     */
+    private final QueryCache cache;
+
+    @Getter(lombok.AccessLevel.NONE)
+    private volatile CompiledRowMapper rowMapper;
+
+    private DaoMethodDescriptor(Method method, SQL sqlAnnotation) {
+        this.name = method.getDeclaringClass().getSimpleName() + "." + method.getName();
+        this.sql = sqlAnnotation.value();
+        this.type = SqlType.of(sqlAnnotation.type());
+        this.returnType = method.getReturnType();
+
+        Class<?>[] parameterTypes = method.getParameterTypes();
+        boolean consumer = parameterTypes.length > 0 && parameterTypes[parameterTypes.length - 1] == RowConsumer.class;
+
+        if (type.isQuery()) {
+            if (consumer) {
+                this.shape = ResultShape.CONSUMER;
+                this.elementType = toClass(firstTypeArgument(
+                        method.getGenericParameterTypes()[parameterTypes.length - 1], method), method);
+            } else if (returnType == Stream.class) {
+                this.shape = ResultShape.STREAM;
+                this.elementType = toClass(firstTypeArgument(method.getGenericReturnType(), method), method);
+            } else if (returnType == Iterator.class) {
+                this.shape = ResultShape.ITERATOR;
+                this.elementType = toClass(firstTypeArgument(method.getGenericReturnType(), method), method);
+            } else if (returnType == Optional.class) {
+                Type argument = firstTypeArgument(method.getGenericReturnType(), method);
+                if (argument instanceof ParameterizedType nested && nested.getRawType() == List.class) {
+                    this.shape = ResultShape.OPTIONAL_LIST;
+                    this.elementType = toClass(firstTypeArgument(nested, method), method);
+                } else {
+                    this.shape = ResultShape.OPTIONAL_ENTITY;
+                    this.elementType = toClass(argument, method);
+                }
+            } else if (returnType == List.class) {
+                this.shape = ResultShape.LIST;
+                this.elementType = toClass(firstTypeArgument(method.getGenericReturnType(), method), method);
+            } else if (RowMapperFactory.isScalarType(returnType)) {
+                this.shape = ResultShape.SCALAR;
+                this.elementType = returnType;
+            } else {
+                this.shape = ResultShape.ENTITY;
+                this.elementType = returnType;
+            }
+        } else {
+            if (returnType == boolean.class || returnType == Boolean.class) {
+                this.shape = ResultShape.UPDATE_BOOLEAN;
+            } else if (returnType == int[].class) {
+                this.shape = ResultShape.BATCH_COUNTS;
+            } else if (returnType == void.class || returnType == Void.class) {
+                this.shape = ResultShape.VOID;
+            } else {
+                this.shape = ResultShape.UPDATE_COUNT;
+            }
+            this.elementType = null;
+        }
+
+        // RowConsumer参数不参与SQL绑定
+        this.binders = new ParameterBinder[shape == ResultShape.CONSUMER ? parameterTypes.length - 1 : parameterTypes.length];
+        for (int i = 0; i < binders.length; i++) {
+            binders[i] = ParameterBinder.forType(parameterTypes[i]);
+        }
+
+        this.batch = sqlAnnotation.batch();
+        this.batchSize = Math.max(1, sqlAnnotation.batchSize());
+        this.elementBinder = batch ? createElementBinder(method, sqlAnnotation) : null;
+        this.fetchSize = shape.isCursor() || shape == ResultShape.CONSUMER ? sqlAnnotation.fetchSize() : 0;
+
+        this.collectionParameters = new boolean[binders.length];
+        boolean expands = false;
+        if (!batch) {
+            for (int i = 0; i < binders.length; i++) {
+                if (Collection.class.isAssignableFrom(parameterTypes[i])) {
+                    collectionParameters[i] = true;
+                    expands = true;
+                }
+            }
+        }
+        this.expandsCollections = expands;
+        this.sqlFragments = expands ? splitPlaceholders(sql, binders.length, method) : null;
+
+        this.tables = parseTables(sql);
+        Cached cached = method.getAnnotation(Cached.class);
+        if (cached != null) {
+            if (!type.isQuery() || shape.isCursor() || shape == ResultShape.CONSUMER) {
+                throw new IllegalStateException("@Cached only supports materialized SELECT results: " + method);
+            }
+            this.cache = QueryCacheManager.register(name, tables, cached.ttl(), cached.maxSize(), resultCopier());
+        } else {
+            this.cache = null;
+        }
+    }
+
+    /**
+     * 缓存结果的复制器：Optional和List重新包装，元素按实体复制器复制，
+     * 缓存中的对象不会被调用方修改，调用方拿到的对象也不会被其他调用方看到
+     */
+    @SuppressWarnings("unchecked")
+    private UnaryOperator<Object> resultCopier() {
+        UnaryOperator<Object> element = RowMapperFactory.copier(elementType);
+        return switch (shape) {
+            case OPTIONAL_ENTITY -> value -> ((Optional<Object>) value).map(element);
+            case OPTIONAL_LIST -> value -> ((Optional<List<Object>>) value).map(list -> copyList(list, element));
+            case LIST -> value -> value == null ? null : copyList((List<Object>) value, element);
+            default -> element;
+        };
+    }
+
+    private static List<Object> copyList(List<Object> list, UnaryOperator<Object> element) {
+        List<Object> copy = new ArrayList<>(list.size());
+        for (Object item : list) {
+            copy.add(element.apply(item));
+        }
+        return copy;
+    }
+
+    /**
+     * 解析DAO接口中所有@SQL方法
+     */
+    public static Map<Method, DaoMethodDescriptor> forInterface(Class<?> daoInterface) {
+        Map<Method, DaoMethodDescriptor> descriptors = new HashMap<>();
+        for (Method method : daoInterface.getMethods()) {
+            SQL sqlAnnotation = method.getAnnotation(SQL.class);
+            if (sqlAnnotation != null) {
+                descriptors.put(method, new DaoMethodDescriptor(method, sqlAnnotation));
+            }
+        }
+        return descriptors;
+    }
+
+    /**
+     * 获取行映射器，首次调用时根据结果集元数据编译；列数变化（如表结构调整）时重新编译
+     */
+    public RowMapper<?> rowMapper(ResultSet rs) throws SQLException {
+        ResultSetMetaData metaData = rs.getMetaData();
+        int columnCount = metaData.getColumnCount();
+        CompiledRowMapper compiled = this.rowMapper;
+        if (compiled == null || compiled.columnCount() != columnCount) {
+            compiled = new CompiledRowMapper(columnCount, RowMapperFactory.compile(elementType, metaData));
+            this.rowMapper = compiled;
+        }
+        return compiled.mapper();
+    }
+
+    public boolean isCollectionParameter(int index) {
+        return collectionParameters[index];
+    }
+
+    /**
+     * 按本次调用的参数生成SQL，集合参数展开为等量占位符，空集合替换为NULL（IN (NULL)不匹配任何行）
+     */
+    public String sqlFor(Object[] args) {
+        if (!expandsCollections) {
+            return sql;
+        }
+        StringBuilder builder = new StringBuilder(sql.length() + 16);
+        for (int i = 0; i < collectionParameters.length; i++) {
+            builder.append(sqlFragments[i]);
+            if (!collectionParameters[i]) {
+                builder.append('?');
+                continue;
+            }
+            int size = args[i] == null ? 0 : ((Collection<?>) args[i]).size();
+            if (size == 0) {
+                builder.append("NULL");
+            } else {
+                builder.append('?');
+                for (int j = 1; j < size; j++) {
+                    builder.append(", ?");
+                }
+            }
+        }
+        return builder.append(sqlFragments[collectionParameters.length]).toString();
+    }
+
+    private static Set<String> parseTables(String sql) {
+        Set<String> tables = new HashSet<>();
+        Matcher matcher = TABLE_PATTERN.matcher(sql);
+        while (matcher.find()) {
+            tables.add(matcher.group(1).toLowerCase(Locale.ROOT));
+        }
+        return Set.copyOf(tables);
+    }
+
+    /**
+     * 按占位符切分SQL，跳过引号内的问号
+     */
+    private static String[] splitPlaceholders(String sql, int expected, Method method) {
+        List<String> fragments = new ArrayList<>(expected + 1);
+        int start = 0;
+        char quote = 0;
+        for (int i = 0; i < sql.length(); i++) {
+            char c = sql.charAt(i);
+            if (quote != 0) {
+                if (c == quote) {
+                    quote = 0;
+                }
+            } else if (c == '\'' || c == '"' || c == '`') {
+                quote = c;
+            } else if (c == '?') {
+                fragments.add(sql.substring(start, i));
+                start = i + 1;
+            }
+        }
+        fragments.add(sql.substring(start));
+        if (fragments.size() != expected + 1) {
+            throw new IllegalStateException("Placeholder count does not match parameter count: " + method);
+        }
+        return fragments.toArray(new String[0]);
+    }
+
+    @SuppressWarnings("unchecked")
+    private ElementBinder createElementBinder(Method method, SQL sqlAnnotation) {
+        if (type.isQuery()) {
+            throw new IllegalStateException("Batch mode only supports INSERT/UPDATE/DELETE: " + method);
+        }
+        if (method.getParameterCount() != 1) {
+            throw new IllegalStateException("Batch method must declare exactly one List or array parameter: " + method);
+        }
+
+        Class<?> parameterType = method.getParameterTypes()[0];
+        Class<?> element;
+        if (parameterType.isArray()) {
+            element = parameterType.getComponentType();
+        } else if (Collection.class.isAssignableFrom(parameterType)) {
+            element = toClass(firstTypeArgument(method.getGenericParameterTypes()[0], method), method);
+        } else {
+            throw new IllegalStateException("Batch method must declare exactly one List or array parameter: " + method);
+        }
+
+        // Object[]元素按位置绑定
+        if (element.isArray()) {
+            return (stmt, value) -> {
+                Object[] row = (Object[]) value;
+                for (int i = 0; i < row.length; i++) {
+                    stmt.setObject(i + 1, row[i]);
+                }
+            };
+        }
+
+        String[] properties = sqlAnnotation.properties();
+        if (properties.length == 0) {
+            throw new IllegalStateException("Batch method with entity elements must declare @SQL(properties): " + method);
+        }
+        Function<Object, Object>[] getters = new Function[properties.length];
+        ParameterBinder[] propertyBinders = new ParameterBinder[properties.length];
+        for (int i = 0; i < properties.length; i++) {
+            try {
+                Method getter = BeanAccessors.findGetter(element, properties[i]);
+                getters[i] = BeanAccessors.getter(element, getter);
+                propertyBinders[i] = ParameterBinder.forType(getter.getReturnType());
+            } catch (NoSuchMethodException e) {
+                throw new IllegalStateException("No getter for property '" + properties[i] + "' in " + element.getName(), e);
+            }
+        }
+        return (stmt, value) -> {
+            for (int i = 0; i < getters.length; i++) {
+                propertyBinders[i].bind(stmt, i + 1, getters[i].apply(value));
+            }
+        };
+    }
+
+    private static Type firstTypeArgument(Type type, Method method) {
+        if (type instanceof ParameterizedType parameterizedType) {
+            return parameterizedType.getActualTypeArguments()[0];
+        }
+        throw new IllegalStateException("Cannot determine generic type for method: " + method);
+    }
+
+    private static Class<?> toClass(Type type, Method method) {
+        if (type instanceof Class<?> clazz) {
+            return clazz;
+        }
+        if (type instanceof ParameterizedType parameterizedType) {
+            return (Class<?>) parameterizedType.getRawType();
+        }
+        throw new IllegalStateException("Cannot determine generic type for method: " + method);
+    }
+
+    private record CompiledRowMapper(int columnCount, RowMapper<?> mapper) {
+    }
+}
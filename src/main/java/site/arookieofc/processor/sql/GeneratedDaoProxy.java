@@ -0,0 +1,105 @@
+package site.arookieofc.processor.sql;
+
+import lombok.extern.slf4j.Slf4j;
+import site.arookieofc.processor.proxy.GeneratedProxy;
+import site.arookieofc.processor.proxy.ProxyClassGenerator;
+import java.lang.invoke.MethodHandle;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 生成的DAO代理类的父类
+ * 每个抽象方法在生成时分配序号，调用时按序号直接取出描述符执行，不再按Method查表；
+ * default方法由生成的代码调用接口实现
+ */
+@Slf4j
+public abstract class GeneratedDaoProxy extends GeneratedProxy {
+
+    private final Class<?> daoInterface;
+    private final Method[] methods;
+    private final DaoMethodDescriptor[] descriptors;
+
+    protected GeneratedDaoProxy(Object state) {
+        this((State) state);
+    }
+
+    private GeneratedDaoProxy(State state) {
+        super(null);
+        this.daoInterface = state.daoInterface;
+        this.methods = state.methods;
+        this.descriptors = state.descriptors;
+    }
+
+    @Override
+    protected final Object dispatch(int index, Object[] args) {
+        DaoMethodDescriptor descriptor = descriptors[index];
+        if (descriptor == null) {
+            throw new RuntimeException("Method must be annotated with @SQL: " + methods[index].getName());
+        }
+        try {
+            return QueryCacheManager.execute(descriptor, args);
+        } catch (Exception e) {
+            log.error("执行DAO方法失败: {}, {}", descriptor.getName(), e.getMessage(), e);
+            throw new RuntimeException("执行DAO方法失败: " + methods[index].getName(), e);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return daoInterface.getName() + "$DAOProxy";
+    }
+
+    /**
+     * 生成DAO代理类并创建实例；无法生成时返回null
+     */
+    public static Object create(Class<?> daoInterface, Map<Method, DaoMethodDescriptor> descriptors) {
+        List<Method> methods = new ArrayList<>();
+        for (Method method : daoInterface.getMethods()) {
+            if (!Modifier.isStatic(method.getModifiers())) {
+                methods.add(method);
+            }
+        }
+
+        int[] bindings = new int[methods.size()];
+        List<Method> dispatched = new ArrayList<>(descriptors.size());
+        for (int i = 0; i < bindings.length; i++) {
+            Method method = methods.get(i);
+            if (!descriptors.containsKey(method) && method.isDefault()) {
+                bindings[i] = ProxyClassGenerator.DEFAULT;
+            } else {
+                bindings[i] = dispatched.size();
+                dispatched.add(method);
+            }
+        }
+
+        MethodHandle constructor = ProxyClassGenerator.define(daoInterface, GeneratedDaoProxy.class,
+                new Class<?>[]{daoInterface}, methods.toArray(new Method[0]), bindings);
+        if (constructor == null) {
+            return null;
+        }
+        try {
+            return (Object) constructor.invokeExact((Object) new State(daoInterface, dispatched, descriptors));
+        } catch (Throwable e) {
+            throw new RuntimeException("创建DAO代理实例失败: " + daoInterface.getName(), e);
+        }
+    }
+
+    private static final class State {
+
+        private final Class<?> daoInterface;
+        private final Method[] methods;
+        private final DaoMethodDescriptor[] descriptors;
+
+        State(Class<?> daoInterface, List<Method> methods, Map<Method, DaoMethodDescriptor> descriptors) {
+            this.daoInterface = daoInterface;
+            this.methods = methods.toArray(new Method[0]);
+            this.descriptors = new DaoMethodDescriptor[this.methods.length];
+            for (int i = 0; i < this.methods.length; i++) {
+                this.descriptors[i] = descriptors.get(this.methods[i]);
+            }
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package site.arookieofc.processor.sql;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+
+/**
+ * 参数绑定器，按DAO方法参数的声明类型预先选定PreparedStatement的setXxx调用
+ */
+@FunctionalInterface
+public interface ParameterBinder {
+
+    void bind(PreparedStatement stmt, int index, Object value) throws SQLException;
+
+    ParameterBinder OBJECT = PreparedStatement::setObject;
+
+    static ParameterBinder forType(Class<?> type) {
+        if (type == String.class) {
+            return (stmt, index, value) -> stmt.setString(index, (String) value);
+        } else if (type == int.class) {
+            return (stmt, index, value) -> stmt.setInt(index, (Integer) value);
+        } else if (type == long.class) {
+            return (stmt, index, value) -> stmt.setLong(index, (Long) value);
+        } else if (type == double.class) {
+            return (stmt, index, value) -> stmt.setDouble(index, (Double) value);
+        } else if (type == boolean.class) {
+            return (stmt, index, value) -> stmt.setBoolean(index, (Boolean) value);
+        } else if (type == Integer.class) {
+            return (stmt, index, value) -> {
+                if (value == null) {
+                    stmt.setNull(index, Types.INTEGER);
+                } else {
+                    stmt.setInt(index, (Integer) value);
+                }
+            };
+        } else if (type == Long.class) {
+            return (stmt, index, value) -> {
+                if (value == null) {
+                    stmt.setNull(index, Types.BIGINT);
+                } else {
+                    stmt.setLong(index, (Long) value);
+                }
+            };
+        }
+        return OBJECT;
+    }
+}
@@ -0,0 +1,142 @@
+package site.arookieofc.processor.sql;
+
+import lombok.Getter;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.UnaryOperator;
+
+/**
+ * 单个DAO方法的查询缓存
+ * 按访问顺序的LRU加TTL淘汰；每次失效递增代数，失效前开始的查询结果不会写回缓存；
+ * 写入时保存结果的副本，命中时返回副本，调用方修改返回的实体或列表不影响缓存
+ */
+public class QueryCache {
+
+    private static final Object NULL = new Object();
+
+    @Getter
+    private final String name;
+    private final long ttl;
+    private final int maxSize;
+    private final UnaryOperator<Object> copier;
+    private final LinkedHashMap<Key, Entry> entries;
+    private long generation;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+
+    QueryCache(String name, long ttl, int maxSize, UnaryOperator<Object> copier) {
+        this.name = name;
+        this.ttl = ttl;
+        this.maxSize = maxSize;
+        this.copier = copier;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, Entry> eldest) {
+                if (size() > QueryCache.this.maxSize) {
+                    evictions.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    static Key key(Object[] args) {
+        return new Key(args == null ? new Object[0] : args.clone());
+    }
+
+    /**
+     * 查找缓存值，未命中返回Lookup.MISS；命中的null结果以Lookup.value()为null返回
+     */
+    Lookup get(Key key) {
+        Lookup lookup = find(key);
+        // 复制在锁外进行
+        return lookup.hit() && lookup.value() != null
+                ? new Lookup(true, copier.apply(lookup.value()), lookup.generation())
+                : lookup;
+    }
+
+    private synchronized Lookup find(Key key) {
+        Entry entry = entries.get(key);
+        if (entry != null && entry.expireAt > System.currentTimeMillis()) {
+            hits.increment();
+            return new Lookup(true, entry.value == NULL ? null : entry.value, generation);
+        }
+        if (entry != null) {
+            entries.remove(key);
+            evictions.increment();
+        }
+        misses.increment();
+        return new Lookup(false, null, generation);
+    }
+
+    /**
+     * 仅当查询开始后没有发生失效时写入
+     */
+    void put(Key key, Object value, long expectedGeneration) {
+        Object copy = value == null ? NULL : copier.apply(value);
+        synchronized (this) {
+            if (expectedGeneration != generation) {
+                return;
+            }
+            entries.put(key, new Entry(copy, System.currentTimeMillis() + ttl));
+        }
+    }
+
+    synchronized void invalidate() {
+        generation++;
+        entries.clear();
+        invalidations.increment();
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public Map<String, Object> getStatistics() {
+        long hitCount = hits.sum();
+        long missCount = misses.sum();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("name", name);
+        stats.put("size", size());
+        stats.put("maxSize", maxSize);
+        stats.put("ttl", ttl);
+        stats.put("hits", hitCount);
+        stats.put("misses", missCount);
+        stats.put("hitRate", hitCount + missCount == 0 ? 0.0 : (double) hitCount / (hitCount + missCount));
+        stats.put("evictions", evictions.sum());
+        stats.put("invalidations", invalidations.sum());
+        return stats;
+    }
+
+    record Lookup(boolean hit, Object value, long generation) {
+    }
+
+    private record Entry(Object value, long expireAt) {
+    }
+
+    static final class Key {
+        private final Object[] args;
+        private final int hash;
+
+        private Key(Object[] args) {
+            this.args = args;
+            this.hash = Arrays.deepHashCode(args);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Key other && hash == other.hash && Arrays.deepEquals(args, other.args);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package site.arookieofc.processor.sql;
+
+import lombok.extern.slf4j.Slf4j;
+import site.arookieofc.processor.transaction.TransactionManager;
+import site.arookieofc.processor.transaction.TransactionStatus;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.UnaryOperator;
+
+/**
+ * 查询缓存管理器
+ * 按表名登记各DAO方法的缓存，写语句执行后使涉及表的缓存失效；
+ * 事务内的写操作立即失效一次，提交后再失效一次，期间本事务读取脏表时绕过缓存；
+ * 未命中时从主库读取后写入缓存，避免延迟的只读副本把失效前的旧数据写回缓存
+ */
+@Slf4j
+public class QueryCacheManager {
+
+    private static final Map<String, List<QueryCache>> cachesByTable = new ConcurrentHashMap<>();
+    private static final List<QueryCache> caches = new CopyOnWriteArrayList<>();
+
+    static QueryCache register(String name, Set<String> tables, long ttl, int maxSize, UnaryOperator<Object> copier) {
+        QueryCache cache = new QueryCache(name, ttl, maxSize, copier);
+        caches.add(cache);
+        for (String table : tables) {
+            cachesByTable.computeIfAbsent(table, t -> new CopyOnWriteArrayList<>()).add(cache);
+        }
+        log.debug("注册查询缓存: {}, 关联表: {}, ttl: {}ms, maxSize: {}", name, tables, ttl, maxSize);
+        return cache;
+    }
+
+    /**
+     * 执行DAO方法，按描述符决定是否经过缓存
+     */
+    public static Object execute(DaoMethodDescriptor descriptor, Object[] args) {
+        TransactionStatus transaction = TransactionManager.getCurrentTransaction();
+        if (!descriptor.getType().isQuery()) {
+            Object result = SQLExecutor.executeSQL(descriptor, args);
+            invalidateAfterWrite(descriptor.getTables(), transaction);
+            return result;
+        }
+
+        QueryCache cache = descriptor.getCache();
+        if (cache == null) {
+            return SQLExecutor.executeSQL(descriptor, args);
+        }
+        if (transaction != null && transaction.isDirty(descriptor.getTables())) {
+            // 本事务已修改相关表，缓存中的已提交数据对它不可见
+            return SQLExecutor.executeSQL(descriptor, args);
+        }
+
+        QueryCache.Key key = QueryCache.key(args);
+        QueryCache.Lookup lookup = cache.get(key);
+        if (lookup.hit()) {
+            return lookup.value();
+        }
+        if (transaction != null) {
+            return SQLExecutor.executeSQL(descriptor, args);
+        }
+        Object result = SQLExecutor.executeSQL(descriptor, args, true);
+        cache.put(key, result, lookup.generation());
+        return result;
+    }
+
+    public static void invalidate(Set<String> tables) {
+        for (String table : tables) {
+            List<QueryCache> tableCaches = cachesByTable.get(table);
+            if (tableCaches != null) {
+                tableCaches.forEach(QueryCache::invalidate);
+            }
+        }
+    }
+
+    public static List<Map<String, Object>> getStatistics() {
+        List<Map<String, Object>> statistics = new ArrayList<>(caches.size());
+        for (QueryCache cache : caches) {
+            statistics.add(cache.getStatistics());
+        }
+        return Collections.unmodifiableList(statistics);
+    }
+
+    private static void invalidateAfterWrite(Set<String> tables, TransactionStatus transaction) {
+        invalidate(tables);
+        if (transaction != null) {
+            for (String table : tables) {
+                if (transaction.markDirty(table)) {
+                    transaction.afterCommit(() -> invalidate(Set.of(table)));
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package site.arookieofc.processor.sql;
+
+import lombok.extern.slf4j.Slf4j;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * 结果集游标
+ * 持有只进只读的ResultSet，按需逐行映射；遍历结束或调用close时释放结果集、语句，
+ * 非事务环境下同时提交并归还连接
+ */
+@Slf4j
+public class ResultCursor<T> implements Iterator<T>, AutoCloseable {
+
+    private final String name;
+    private final Connection conn;
+    private final PreparedStatement stmt;
+    private final ResultSet rs;
+    private final boolean ownsConnection;
+    private final DaoMethodDescriptor descriptor;
+
+    private RowMapper<T> rowMapper;
+    private boolean fetched;
+    private boolean hasRow;
+    private boolean closed;
+    private long rowCount;
+
+    ResultCursor(DaoMethodDescriptor descriptor, Connection conn, PreparedStatement stmt, ResultSet rs, boolean ownsConnection) {
+        this.name = descriptor.getName();
+        this.descriptor = descriptor;
+        this.conn = conn;
+        this.stmt = stmt;
+        this.rs = rs;
+        this.ownsConnection = ownsConnection;
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (closed) {
+            return false;
+        }
+        if (!fetched) {
+            try {
+                hasRow = rs.next();
+            } catch (SQLException e) {
+                close();
+                throw new RuntimeException("SQL execution failed", e);
+            }
+            fetched = true;
+            if (!hasRow) {
+                close();
+            }
+        }
+        return hasRow;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public T next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        fetched = false;
+        try {
+            if (rowMapper == null) {
+                rowMapper = (RowMapper<T>) descriptor.rowMapper(rs);
+            }
+            rowCount++;
+            return rowMapper.mapRow(rs);
+        } catch (SQLException e) {
+            close();
+            throw new RuntimeException("SQL execution failed", e);
+        }
+    }
+
+    /**
+     * 包装为顺序Stream，Stream关闭时关闭游标
+     */
+    public Stream<T> stream() {
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(this, Spliterator.ORDERED), false)
+                .onClose(this::close);
+    }
+
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            rs.close();
+        } catch (SQLException e) {
+            log.error("关闭结果集失败", e);
+        }
+        try {
+            stmt.close();
+        } catch (SQLException e) {
+            log.error("关闭语句失败", e);
+        }
+        if (ownsConnection) {
+            try {
+                conn.commit();
+            } catch (SQLException e) {
+                log.error("提交游标连接失败", e);
+            }
+            try {
+                conn.close();
+                log.debug("关闭数据库连接");
+            } catch (SQLException e) {
+                log.error("关闭数据库连接失败", e);
+            }
+        }
+        log.debug("游标关闭: {}, 读取行数: {}", name, rowCount);
+    }
+}
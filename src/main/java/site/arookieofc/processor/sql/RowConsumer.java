@@ -0,0 +1,9 @@
+package site.arookieofc.processor.sql;
+
+/**
+ * 逐行回调，DAO方法最后一个参数声明为RowConsumer时，结果集每读取一行即回调一次，不在内存中累积
+ */
+@FunctionalInterface
+public interface RowConsumer<T> {
+    void accept(T row);
+}
@@ -0,0 +1,12 @@
+package site.arookieofc.processor.sql;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * 结果集行映射器，将ResultSet当前行转换为目标对象
+ */
+@FunctionalInterface
+public interface RowMapper<T> {
+    T mapRow(ResultSet rs) throws SQLException;
+}
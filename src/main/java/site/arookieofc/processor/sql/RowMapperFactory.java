@@ -0,0 +1,239 @@
+package site.arookieofc.processor.sql;
+
+import lombok.extern.slf4j.Slf4j;
+import site.arookieofc.utils.BeanAccessors;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+
+/**
+ * 行映射器编译工厂
+ * 根据ResultSetMetaData一次性解析列索引与setter，生成可复用的RowMapper，
+ * 映射阶段只做按索引取值和直接setter调用，不再有反射查找和异常探测
+ */
+@Slf4j
+public class RowMapperFactory {
+
+    /**
+     * 编译实体映射器，列名按"去下划线、忽略大小写"与属性名匹配
+     */
+    public static <T> RowMapper<T> compile(Class<T> entityType, ResultSetMetaData metaData) throws SQLException {
+        if (isScalarType(entityType)) {
+            return scalarMapper(entityType);
+        }
+
+        Map<String, Property> properties = resolveProperties(entityType);
+        List<ColumnBinding> bindings = new ArrayList<>();
+        int columnCount = metaData.getColumnCount();
+        for (int i = 1; i <= columnCount; i++) {
+            String columnLabel = metaData.getColumnLabel(i);
+            Property property = properties.get(normalize(columnLabel));
+            if (property == null) {
+                log.debug("列 {} 在 {} 中没有对应属性，已忽略", columnLabel, entityType.getSimpleName());
+                continue;
+            }
+            bindings.add(new ColumnBinding(i, columnReader(property.type), property.setter));
+        }
+
+        log.debug("编译行映射器: {}, 列数: {}, 绑定属性数: {}", entityType.getSimpleName(), columnCount, bindings.size());
+        return new BeanRowMapper<>(BeanAccessors.constructor(entityType), bindings.toArray(new ColumnBinding[0]));
+    }
+
+    /**
+     * 单列映射器，用于基本类型、包装类型与String
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> RowMapper<T> scalarMapper(Class<T> type) {
+        ColumnReader reader = columnReader(type);
+        return rs -> (T) reader.read(rs, 1);
+    }
+
+    public static boolean isScalarType(Class<?> clazz) {
+        return clazz.isPrimitive() ||
+               clazz == String.class ||
+               clazz == Integer.class ||
+               clazz == Long.class ||
+               clazz == Double.class ||
+               clazz == Float.class ||
+               clazz == Boolean.class ||
+               clazz == Character.class ||
+               clazz == Byte.class ||
+               clazz == Short.class;
+    }
+
+    /**
+     * 编译实体复制器：新建实例并逐个复制同时有getter和setter的属性（属性值本身不复制）；
+     * 单列类型、BigDecimal和java.time类型不可变，原样返回
+     */
+    public static UnaryOperator<Object> copier(Class<?> type) {
+        if (isScalarType(type) || type == BigDecimal.class || type == LocalDate.class
+                || type == LocalDateTime.class || type == LocalTime.class || type == Object.class) {
+            return UnaryOperator.identity();
+        }
+
+        Supplier<?> constructor = BeanAccessors.constructor(type);
+        List<Function<Object, Object>> getters = new ArrayList<>();
+        List<BiConsumer<Object, Object>> setters = new ArrayList<>();
+        for (Class<?> current = type; current != null && current != Object.class; current = current.getSuperclass()) {
+            for (Field field : current.getDeclaredFields()) {
+                if (Modifier.isStatic(field.getModifiers())) {
+                    continue;
+                }
+                String name = field.getName();
+                String setterName = "set" + Character.toUpperCase(name.charAt(0)) + name.substring(1);
+                try {
+                    Method setter = type.getMethod(setterName, field.getType());
+                    Method getter = BeanAccessors.findGetter(type, name);
+                    getters.add(BeanAccessors.getter(type, getter));
+                    setters.add(BeanAccessors.setter(type, setter));
+                } catch (NoSuchMethodException e) {
+                    // 没有getter或setter的字段不复制
+                }
+            }
+        }
+
+        log.debug("编译实体复制器: {}, 属性数: {}", type.getSimpleName(), getters.size());
+        @SuppressWarnings("unchecked")
+        Function<Object, Object>[] getterArray = getters.toArray(new Function[0]);
+        @SuppressWarnings("unchecked")
+        BiConsumer<Object, Object>[] setterArray = setters.toArray(new BiConsumer[0]);
+        return source -> {
+            if (source == null) {
+                return null;
+            }
+            Object copy = constructor.get();
+            for (int i = 0; i < getterArray.length; i++) {
+                setterArray[i].accept(copy, getterArray[i].apply(source));
+            }
+            return copy;
+        };
+    }
+
+    private static Map<String, Property> resolveProperties(Class<?> entityType) {
+        Map<String, Property> properties = new HashMap<>();
+        for (Class<?> current = entityType; current != null && current != Object.class; current = current.getSuperclass()) {
+            for (Field field : current.getDeclaredFields()) {
+                String name = field.getName();
+                String key = normalize(name);
+                if (properties.containsKey(key)) {
+                    continue;
+                }
+                String setterName = "set" + Character.toUpperCase(name.charAt(0)) + name.substring(1);
+                try {
+                    Method setter = entityType.getMethod(setterName, field.getType());
+                    properties.put(key, new Property(field.getType(), BeanAccessors.setter(entityType, setter)));
+                } catch (NoSuchMethodException e) {
+                    // 没有setter的字段不参与映射
+                }
+            }
+        }
+        return properties;
+    }
+
+    private static String normalize(String name) {
+        return name.replace("_", "").toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * 根据目标类型选择按索引取值的方式，基本类型通过wasNull区分NULL
+     */
+    private static ColumnReader columnReader(Class<?> type) {
+        if (type == String.class) {
+            return ResultSet::getString;
+        } else if (type == Integer.class || type == int.class) {
+            return (rs, i) -> {
+                int value = rs.getInt(i);
+                return rs.wasNull() ? null : value;
+            };
+        } else if (type == Long.class || type == long.class) {
+            return (rs, i) -> {
+                long value = rs.getLong(i);
+                return rs.wasNull() ? null : value;
+            };
+        } else if (type == Double.class || type == double.class) {
+            return (rs, i) -> {
+                double value = rs.getDouble(i);
+                return rs.wasNull() ? null : value;
+            };
+        } else if (type == Float.class || type == float.class) {
+            return (rs, i) -> {
+                float value = rs.getFloat(i);
+                return rs.wasNull() ? null : value;
+            };
+        } else if (type == Boolean.class || type == boolean.class) {
+            return (rs, i) -> {
+                boolean value = rs.getBoolean(i);
+                return rs.wasNull() ? null : value;
+            };
+        } else if (type == Short.class || type == short.class) {
+            return (rs, i) -> {
+                short value = rs.getShort(i);
+                return rs.wasNull() ? null : value;
+            };
+        } else if (type == Byte.class || type == byte.class) {
+            return (rs, i) -> {
+                byte value = rs.getByte(i);
+                return rs.wasNull() ? null : value;
+            };
+        } else if (type == Character.class || type == char.class) {
+            return (rs, i) -> {
+                String value = rs.getString(i);
+                return value == null || value.isEmpty() ? null : value.charAt(0);
+            };
+        } else if (type == BigDecimal.class) {
+            return ResultSet::getBigDecimal;
+        } else if (type == LocalDate.class || type == LocalDateTime.class || type == LocalTime.class) {
+            return (rs, i) -> rs.getObject(i, type);
+        }
+        return ResultSet::getObject;
+    }
+
+    @FunctionalInterface
+    private interface ColumnReader {
+        Object read(ResultSet rs, int index) throws SQLException;
+    }
+
+    private record Property(Class<?> type, BiConsumer<Object, Object> setter) {
+    }
+
+    private record ColumnBinding(int index, ColumnReader reader, BiConsumer<Object, Object> setter) {
+    }
+
+    private static final class BeanRowMapper<T> implements RowMapper<T> {
+        private final Supplier<T> constructor;
+        private final ColumnBinding[] bindings;
+
+        private BeanRowMapper(Supplier<T> constructor, ColumnBinding[] bindings) {
+            this.constructor = constructor;
+            this.bindings = bindings;
+        }
+
+        @Override
+        public T mapRow(ResultSet rs) throws SQLException {
+            T entity = constructor.get();
+            for (ColumnBinding binding : bindings) {
+                Object value = binding.reader.read(rs, binding.index);
+                if (value != null) {
+                    binding.setter.accept(entity, value);
+                }
+            }
+            return entity;
+        }
+    }
+}
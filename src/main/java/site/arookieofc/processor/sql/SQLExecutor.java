@@ -1,68 +1,81 @@
 package site.arookieofc.processor.sql;
 
 import lombok.extern.slf4j.Slf4j;
-import site.arookieofc.annotation.sql.SQL;
 import site.arookieofc.processor.transaction.TransactionManager;
 import site.arookieofc.processor.transaction.TransactionStatus;
 import site.arookieofc.utils.DatabaseUtil;
-import java.lang.reflect.Field;
-import java.lang.reflect.Method;
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 
 @Slf4j
 public class SQLExecutor {
-    
-    @SuppressWarnings("unchecked")
-    public static <T> T executeSQL(Method method, Object[] args, Class<T> returnType) {
-        SQL sqlAnnotation = method.getAnnotation(SQL.class);
-        if (sqlAnnotation == null) {
-            throw new RuntimeException("Method must be annotated with @SQL");
-        }
-        
-        String sql = sqlAnnotation.value();
-        String type = sqlAnnotation.type().toUpperCase();
-        
-        log.debug("执行SQL: {}, 类型: {}, 方法: {}.{}", 
-                sql, type, method.getDeclaringClass().getSimpleName(), method.getName());
-        
+
+    public static Object executeSQL(DaoMethodDescriptor descriptor, Object[] args) {
+        return executeSQL(descriptor, args, false);
+    }
+
+    /**
+     * @param primaryRead 事务外的查询也使用主库连接，用于写入缓存等不能读到副本旧数据的场景
+     */
+    public static Object executeSQL(DaoMethodDescriptor descriptor, Object[] args, boolean primaryRead) {
+        String sql = descriptor.sqlFor(args);
+
+        log.debug("执行SQL: {}, 方法: {}", sql, descriptor.getName());
+
         // 首先尝试获取当前事务的连接
         Connection conn;
         boolean closeConnection = true;
         boolean isTransactional = false;
+        TransactionStatus transaction = null;
         long startTime = System.currentTimeMillis();
-        
+
         try {
             TransactionStatus currentStatus = TransactionManager.getCurrentTransaction();
             if (currentStatus != null && !currentStatus.isCompleted()) {
+                transaction = currentStatus;
                 conn = currentStatus.getConnection();
                 closeConnection = false; // 不关闭事务连接
                 isTransactional = true;  // 标记为事务环境
                 log.debug("使用事务连接执行SQL");
+            } else if (descriptor.getType().isQuery() && !primaryRead) {
+                // 事务外的查询可路由到只读副本
+                conn = DatabaseUtil.getReadConnection();
+                log.debug("使用只读连接执行SQL");
             } else {
                 conn = DatabaseUtil.getConnection();
                 log.debug("使用新连接执行SQL");
             }
-            
+
+            if (descriptor.getShape().isCursor()) {
+                // 游标模式：结果集与连接随Stream/Iterator关闭而释放
+                ResultCursor<?> cursor = openCursor(conn, descriptor, sql, args, closeConnection);
+                return descriptor.getShape() == DaoMethodDescriptor.ResultShape.STREAM ? cursor.stream() : cursor;
+            }
+
             try {
                 Object result;
-                if ("SELECT".equals(type)) {
-                    result = executeQuery(conn, sql, args, returnType, method);
+                if (descriptor.getType().isQuery()) {
+                    result = executeQuery(conn, transaction, descriptor, sql, args);
+                } else if (descriptor.isBatch()) {
+                    result = executeBatch(conn, transaction, descriptor, args);
                 } else {
-                    result = executeUpdate(conn, sql, args, returnType);
+                    result = executeUpdate(conn, transaction, descriptor, sql, args);
                 }
-                
+
                 // 如果不是在事务环境中，手动提交
                 if (!isTransactional) {
                     conn.commit();
                 }
-                
+
                 long executionTime = System.currentTimeMillis() - startTime;
                 log.debug("SQL执行完成: {}, 耗时: {}ms", sql, executionTime);
-                
-                return (T) result;
+
+                return result;
             } finally {
                 if (closeConnection && conn != null) {
                     try {
@@ -78,80 +91,120 @@ public class SQLExecutor {
             throw new RuntimeException("SQL execution failed", e);
         }
     }
-    
-    private static Object executeQuery(Connection conn, String sql, Object[] args, Class<?> returnType, Method method) throws SQLException {
-        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
-            setParameters(stmt, args);
-            
-            log.debug("执行查询: {}, 参数数量: {}", sql, args != null ? args.length : 0);
-            
+
+    private static Object executeQuery(Connection conn, TransactionStatus transaction, DaoMethodDescriptor descriptor, String sql, Object[] args) throws SQLException {
+        // 设置了fetchSize的查询、展开了集合参数的查询和逐行回调的查询使用独立语句，不进入事务语句缓存；
+        // 回调中可能执行其他SQL，缓存淘汰不能关闭正在读取的语句
+        TransactionStatus owner = descriptor.getFetchSize() <= 0 && !descriptor.isExpandsCollections()
+                && descriptor.getShape() != DaoMethodDescriptor.ResultShape.CONSUMER ? transaction : null;
+        PreparedStatement stmt = owner != null ? owner.prepareStatement(sql) : prepareQuery(conn, descriptor, sql);
+        try {
+            setParameters(stmt, descriptor, args);
+
             try (ResultSet rs = stmt.executeQuery()) {
-                if (returnType == Optional.class) {
-                    Class<?> entityType = getGenericType(method);
-                    if (entityType.equals(List.class)) {
-                        Class<?> listEntityType = getListGenericType(method);
-                        List<Object> results = mapResultSetToList(rs, listEntityType);
+                switch (descriptor.getShape()) {
+                    case CONSUMER: {
+                        long rows = consumeRows(rs, descriptor, args[args.length - 1]);
+                        log.debug("查询结果: RowConsumer, 回调行数: {}", rows);
+                        Class<?> returnType = descriptor.getReturnType();
+                        if (returnType == int.class || returnType == Integer.class) {
+                            return (int) rows;
+                        }
+                        return returnType == long.class || returnType == Long.class ? rows : null;
+                    }
+                    case OPTIONAL_LIST: {
+                        List<Object> results = mapResultSetToList(rs, descriptor);
                         log.debug("查询结果: Optional<List>, 结果数量: {}", results.size());
                         return Optional.ofNullable(results.isEmpty() ? null : results);
-                    } else {
+                    }
+                    case OPTIONAL_ENTITY: {
                         if (rs.next()) {
-                            Object entity = mapResultSetToEntity(rs, entityType);
-                            log.debug("查询结果: Optional<{}>, 找到记录", entityType.getSimpleName());
-                            return Optional.of(entity);
-                        } else {
-                            log.debug("查询结果: Optional<{}>, 未找到记录", entityType.getSimpleName());
-                            return Optional.empty();
+                            return Optional.ofNullable(descriptor.rowMapper(rs).mapRow(rs));
                         }
+                        log.debug("查询结果: {}, 未找到记录", descriptor.getName());
+                        return Optional.empty();
                     }
-                } else if (returnType == List.class) {
-                    Class<?> entityType = getListGenericType(method);
-                    List<Object> results = mapResultSetToList(rs, entityType);
-                    log.debug("查询结果: List<{}>, 结果数量: {}", entityType.getSimpleName(), results.size());
-                    return results;
-                } else if (isPrimitiveOrWrapper(returnType)) {
-                    // 处理基本类型和包装类型
-                    if (rs.next()) {
-                        Object value = rs.getObject(1);
-                        log.debug("查询结果: {}, 值: {}", returnType.getSimpleName(), value);
-                        return convertToPrimitiveType(value, returnType);
+                    case LIST: {
+                        List<Object> results = mapResultSetToList(rs, descriptor);
+                        log.debug("查询结果: List, 结果数量: {}", results.size());
+                        return results;
                     }
-                    log.debug("查询结果: {}, 未找到记录，返回默认值", returnType.getSimpleName());
-                    return getDefaultValue(returnType);
-                } else {
-                    if (rs.next()) {
-                        Object entity = mapResultSetToEntity(rs, returnType);
-                        log.debug("查询结果: {}, 找到记录", returnType.getSimpleName());
-                        return entity;
-                    } else {
-                        log.debug("查询结果: {}, 未找到记录，返回null", returnType.getSimpleName());
+                    case SCALAR: {
+                        // 处理基本类型和包装类型
+                        if (rs.next()) {
+                            Object value = descriptor.rowMapper(rs).mapRow(rs);
+                            return value != null ? value : getDefaultValue(descriptor.getReturnType());
+                        }
+                        log.debug("查询结果: {}, 未找到记录，返回默认值", descriptor.getName());
+                        return getDefaultValue(descriptor.getReturnType());
+                    }
+                    default: {
+                        if (rs.next()) {
+                            return descriptor.rowMapper(rs).mapRow(rs);
+                        }
+                        log.debug("查询结果: {}, 未找到记录，返回null", descriptor.getName());
                         return null;
                     }
                 }
             }
+        } finally {
+            release(stmt, owner);
+        }
+    }
+
+    private static ResultCursor<?> openCursor(Connection conn, DaoMethodDescriptor descriptor, String sql, Object[] args, boolean ownsConnection) throws SQLException {
+        PreparedStatement stmt = null;
+        try {
+            stmt = prepareQuery(conn, descriptor, sql);
+            setParameters(stmt, descriptor, args);
+            ResultSet rs = stmt.executeQuery();
+            log.debug("打开游标: {}, fetchSize: {}", descriptor.getName(), descriptor.getFetchSize());
+            return new ResultCursor<>(descriptor, conn, stmt, rs, ownsConnection);
+        } catch (SQLException | RuntimeException e) {
+            if (stmt != null) {
+                try {
+                    stmt.close();
+                } catch (SQLException ex) {
+                    log.error("关闭语句失败", ex);
+                }
+            }
+            if (ownsConnection) {
+                try {
+                    conn.close();
+                } catch (SQLException ex) {
+                    log.error("关闭数据库连接失败", ex);
+                }
+            }
+            throw e;
         }
     }
-    
-    // 添加类型转换方法
-    private static Object convertToPrimitiveType(Object value, Class<?> targetType) {
-        if (value == null) {
-            return getDefaultValue(targetType);
+
+    /**
+     * 游标类查询使用只进只读结果集并设置fetchSize，避免驱动一次性读入全部行
+     */
+    private static PreparedStatement prepareQuery(Connection conn, DaoMethodDescriptor descriptor, String sql) throws SQLException {
+        if (descriptor.getFetchSize() <= 0) {
+            return conn.prepareStatement(sql);
         }
-        
-        if (targetType == long.class || targetType == Long.class) {
-            return ((Number) value).longValue();
-        } else if (targetType == int.class || targetType == Integer.class) {
-            return ((Number) value).intValue();
-        } else if (targetType == double.class || targetType == Double.class) {
-            return ((Number) value).doubleValue();
-        } else if (targetType == float.class || targetType == Float.class) {
-            return ((Number) value).floatValue();
-        } else if (targetType == boolean.class || targetType == Boolean.class) {
-            return Boolean.valueOf(value.toString());
-        } else if (targetType == String.class) {
-            return value.toString();
+        PreparedStatement stmt = conn.prepareStatement(sql,
+                ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+        stmt.setFetchSize(descriptor.getFetchSize());
+        return stmt;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static long consumeRows(ResultSet rs, DaoMethodDescriptor descriptor, Object consumer) throws SQLException {
+        if (!rs.next()) {
+            return 0;
         }
-        
-        return value;
+        RowConsumer<Object> rowConsumer = (RowConsumer<Object>) consumer;
+        RowMapper<?> rowMapper = descriptor.rowMapper(rs);
+        long rows = 0;
+        do {
+            rowConsumer.accept(rowMapper.mapRow(rs));
+            rows++;
+        } while (rs.next());
+        return rows;
     }
 
     private static Object getDefaultValue(Class<?> type) {
@@ -165,166 +218,143 @@ public class SQLExecutor {
         if (type == short.class) return (short) 0;
         return null; // 包装类型返回null
     }
-    
-    private static Object executeUpdate(Connection conn, String sql, Object[] args, Class<?> returnType) throws SQLException {
-        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
-            setParameters(stmt, args);
+
+    private static Object executeUpdate(Connection conn, TransactionStatus transaction, DaoMethodDescriptor descriptor, String sql, Object[] args) throws SQLException {
+        // 集合参数展开后的SQL随元素个数变化，不进入事务语句缓存
+        TransactionStatus owner = descriptor.isExpandsCollections() ? null : transaction;
+        PreparedStatement stmt = prepare(conn, owner, sql);
+        try {
+            setParameters(stmt, descriptor, args);
             int affectedRows = stmt.executeUpdate();
-            
-            if (returnType == int.class || returnType == Integer.class) {
-                return affectedRows;
-            } else if (returnType == boolean.class || returnType == Boolean.class) {
-                return affectedRows > 0;
-            } else if (returnType == void.class || returnType == Void.class) {
-                return null;
-            }
-            
-            return affectedRows;
+
+            return switch (descriptor.getShape()) {
+                case UPDATE_BOOLEAN -> affectedRows > 0;
+                case VOID -> null;
+                default -> affectedRows;
+            };
+        } finally {
+            release(stmt, owner);
         }
     }
-    
-    private static void setParameters(PreparedStatement stmt, Object[] args) throws SQLException {
-        if (args != null) {
-            for (int i = 0; i < args.length; i++) {
-                stmt.setObject(i + 1, args[i]);
-            }
-        }
+
+    /**
+     * 事务内从事务语句缓存取语句，事务外每次新建
+     */
+    private static PreparedStatement prepare(Connection conn, TransactionStatus transaction, String sql) throws SQLException {
+        return transaction != null ? transaction.prepareStatement(sql) : conn.prepareStatement(sql);
     }
-    
-    private static Class<?> getListGenericType(Method method) {
-        try {
-            java.lang.reflect.ParameterizedType parameterizedType = 
-                (java.lang.reflect.ParameterizedType) method.getGenericReturnType();
-            java.lang.reflect.Type firstArgument = parameterizedType.getActualTypeArguments()[0];
-            
-            // 如果第一个泛型参数也是参数化类型（如 List<T>），则需要进一步解析
-            if (firstArgument instanceof java.lang.reflect.ParameterizedType nestedParameterizedType) {
-                // 获取 List<T> 中的 T
-                return (Class<?>) nestedParameterizedType.getActualTypeArguments()[0];
-            } else {
-                // 如果是普通类型，直接转换
-                return (Class<?>) firstArgument;
-            }
-        } catch (Exception e) {
-            log.error("Cannot determine list generic type for method: {}", method.getName(), e);
-            throw new RuntimeException("Cannot determine list generic type", e);
+
+    /**
+     * 事务缓存的语句保留到事务结束，其余语句用完即关闭
+     */
+    private static void release(PreparedStatement stmt, TransactionStatus transaction) throws SQLException {
+        if (transaction == null) {
+            stmt.close();
         }
     }
-    
-    private static Object mapResultSetToEntity(ResultSet rs, Class<?> entityType) {
+
+    private static Object executeBatch(Connection conn, TransactionStatus transaction, DaoMethodDescriptor descriptor, Object[] args) throws SQLException {
+        Object source = args != null ? args[0] : null;
+        Iterable<?> elements;
+        if (source == null) {
+            elements = Collections.emptyList();
+        } else if (source instanceof Object[] array) {
+            elements = Arrays.asList(array);
+        } else {
+            elements = (Iterable<?>) source;
+        }
+
+        int batchSize = descriptor.getBatchSize();
+        List<int[]> chunkCounts = descriptor.getShape() == DaoMethodDescriptor.ResultShape.BATCH_COUNTS ? new ArrayList<>() : null;
+        int total = 0;
+        int rows = 0;
+        PreparedStatement stmt = prepare(conn, transaction, descriptor.getSql());
         try {
-            // 添加基本类型检查
-            if (isPrimitiveOrWrapper(entityType)) {
-                return rs.getObject(1); // 假设只有一列
+            int pending = 0;
+            for (Object element : elements) {
+                descriptor.getElementBinder().bind(stmt, element);
+                stmt.addBatch();
+                rows++;
+                if (++pending == batchSize) {
+                    total += flushBatch(stmt, chunkCounts);
+                    pending = 0;
+                }
             }
-            
-            Object entity = entityType.getDeclaredConstructor().newInstance();
-            Field[] fields = entityType.getDeclaredFields();
-            
-            for (Field field : fields) {
-                String columnName = field.getName();
-                String setterName = "set" + Character.toUpperCase(columnName.charAt(0)) + columnName.substring(1);
-                
+            if (pending > 0) {
+                total += flushBatch(stmt, chunkCounts);
+            }
+        } catch (SQLException | RuntimeException e) {
+            // 失败时丢弃已加入但未执行的批次，避免缓存语句残留到下一次执行
+            if (transaction != null) {
                 try {
-                    Method setter = entityType.getMethod(setterName, field.getType());
-                    Object value;
-                    
-                    // 优先尝试下划线格式
-                    try {
-                        String underscoreColumnName = camelToUnderscore(columnName);
-                        value = rs.getObject(underscoreColumnName);
-                    } catch (SQLException e1) {
-                        // 如果下划线格式失败，尝试驼峰格式
-                        try {
-                            value = rs.getObject(columnName);
-                        } catch (SQLException e2) {
-                            log.error("Failed to map field: {}", columnName);
-                            continue;
-                        }
-                    }
-                    
-                    if (value != null) {
-                        // 类型转换逻辑保持不变
-                        if (field.getType() == String.class && !(value instanceof String)) {
-                            value = value.toString();
-                        } else if (field.getType() == Integer.class && value instanceof Number) {
-                            value = ((Number) value).intValue();
-                        }
-                        setter.invoke(entity, value);
-                    }
-                } catch (Exception e) {
-                    log.error("Error setting field {}: {}", columnName, e.getMessage());
+                    stmt.clearBatch();
+                } catch (SQLException ex) {
+                    e.addSuppressed(ex);
                 }
             }
-            return entity;
-        } catch (Exception e) {
-            log.error("Failed to create entity: {}", e.getMessage());
-            throw new RuntimeException("Failed to map ResultSet to entity", e);
+            throw e;
+        } finally {
+            release(stmt, transaction);
         }
+        log.debug("批量执行完成: {}, 行数: {}, 批大小: {}, 影响行数: {}", descriptor.getName(), rows, batchSize, total);
+
+        return switch (descriptor.getShape()) {
+            case BATCH_COUNTS -> chunkCounts.stream().flatMapToInt(Arrays::stream).toArray();
+            case UPDATE_BOOLEAN -> total > 0;
+            case VOID -> null;
+            default -> total;
+        };
     }
 
-    private static String camelToUnderscore(String camelCase) {
-        return camelCase.replaceAll("([a-z])([A-Z])", "$1_$2").toLowerCase();
+    /**
+     * 执行一批语句并返回影响行数；rewriteBatchedStatements改写后驱动返回SUCCESS_NO_INFO，按每条1行计
+     */
+    private static int flushBatch(PreparedStatement stmt, List<int[]> chunkCounts) throws SQLException {
+        int[] counts = stmt.executeBatch();
+        stmt.clearBatch();
+        if (chunkCounts != null) {
+            chunkCounts.add(counts);
+        }
+        int affected = 0;
+        for (int count : counts) {
+            affected += count == Statement.SUCCESS_NO_INFO ? 1 : Math.max(count, 0);
+        }
+        return affected;
     }
-    
-    private static List<Object> mapResultSetToList(ResultSet rs, Class<?> entityType) throws SQLException {
-        List<Object> results = new ArrayList<>();
-        
-        // 检查是否为基本类型或包装类型
-        if (isPrimitiveOrWrapper(entityType)) {
-            while (rs.next()) {
-                // 对于基本类型，直接从第一列获取值
-                Object value = rs.getObject(1);
-                if (value != null) {
-                    // 进行必要的类型转换
-                    if (entityType == String.class) {
-                        results.add(value.toString());
-                    } else if (entityType == Integer.class && value instanceof Number) {
-                        results.add(((Number) value).intValue());
-                    } else {
-                        results.add(value);
-                    }
-                }
+
+    private static void setParameters(PreparedStatement stmt, DaoMethodDescriptor descriptor, Object[] args) throws SQLException {
+        ParameterBinder[] binders = descriptor.getBinders();
+        if (!descriptor.isExpandsCollections()) {
+            for (int i = 0; i < binders.length; i++) {
+                binders[i].bind(stmt, i + 1, args[i]);
             }
-        } else {
-            while (rs.next()) {
-                results.add(mapResultSetToEntity(rs, entityType));
+            return;
+        }
+        // 集合参数逐个元素绑定，空集合在SQL中已替换为NULL
+        int index = 1;
+        for (int i = 0; i < binders.length; i++) {
+            if (!descriptor.isCollectionParameter(i)) {
+                binders[i].bind(stmt, index++, args[i]);
+            } else if (args[i] != null) {
+                for (Object value : (Collection<?>) args[i]) {
+                    stmt.setObject(index++, value);
+                }
             }
         }
-        
-        return results;
-    }
-    
-    // 添加辅助方法来检查是否为基本类型
-    private static boolean isPrimitiveOrWrapper(Class<?> clazz) {
-        return clazz.isPrimitive() || 
-               clazz == String.class ||
-               clazz == Integer.class ||
-               clazz == Long.class ||
-               clazz == Double.class ||
-               clazz == Float.class ||
-               clazz == Boolean.class ||
-               clazz == Character.class ||
-               clazz == Byte.class ||
-               clazz == Short.class;
     }
-    
-    private static Class<?> getGenericType(Method method) {
-        try {
-            java.lang.reflect.ParameterizedType parameterizedType = 
-                (java.lang.reflect.ParameterizedType) method.getGenericReturnType();
-            java.lang.reflect.Type firstArgument = parameterizedType.getActualTypeArguments()[0];
-            
-            // 如果第一个泛型参数也是参数化类型（如 List<T>），则需要进一步解析
-            if (firstArgument instanceof java.lang.reflect.ParameterizedType nestedParameterizedType) {
-                return (Class<?>) nestedParameterizedType.getRawType();
-            } else {
-                // 如果是普通类型，直接转换
-                return (Class<?>) firstArgument;
-            }
-        } catch (Exception e) {
-            log.error("Cannot determine generic type for method: {}", method.getName(), e);
-            throw new RuntimeException("Cannot determine generic type", e);
+
+    private static List<Object> mapResultSetToList(ResultSet rs, DaoMethodDescriptor descriptor) throws SQLException {
+        List<Object> results = new ArrayList<>();
+        if (!rs.next()) {
+            return results;
         }
+        RowMapper<?> rowMapper = descriptor.rowMapper(rs);
+        do {
+            Object value = rowMapper.mapRow(rs);
+            if (value != null) {
+                results.add(value);
+            }
+        } while (rs.next());
+        return results;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,25 @@
+package site.arookieofc.processor.sql;
+
+import java.util.Locale;
+
+/**
+ * SQL语句类型
+ */
+public enum SqlType {
+    SELECT,
+    INSERT,
+    UPDATE,
+    DELETE;
+
+    public static SqlType of(String type) {
+        try {
+            return valueOf(type.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unsupported SQL type: " + type, e);
+        }
+    }
+
+    public boolean isQuery() {
+        return this == SELECT;
+    }
+}
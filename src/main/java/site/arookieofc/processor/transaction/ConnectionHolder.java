@@ -0,0 +1,107 @@
+package site.arookieofc.processor.transaction;
+
+import lombok.extern.slf4j.Slf4j;
+import site.arookieofc.utils.DatabaseUtil;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 事务范围的资源持有者
+ * 首次执行SQL时才从连接池获取连接并设置隔离级别；事务内按SQL文本缓存PreparedStatement，
+ * 同一语句多次执行只prepare一次，事务结束时统一关闭。缓存按最近使用顺序保留MAX_CACHED_STATEMENTS条，
+ * 超出时关闭最久未用的语句
+ */
+@Slf4j
+public class ConnectionHolder {
+
+    /**
+     * 不修改连接的隔离级别
+     */
+    public static final int DEFAULT_ISOLATION = -1;
+
+    /**
+     * 单个事务内缓存的语句数量上限
+     */
+    static final int MAX_CACHED_STATEMENTS = 32;
+
+    private final int isolationLevel;
+    private Connection connection;
+    private Map<String, PreparedStatement> statements;
+
+    public ConnectionHolder(int isolationLevel) {
+        this.isolationLevel = isolationLevel;
+    }
+
+    public Connection getConnection() throws SQLException {
+        if (connection == null) {
+            Connection acquired = DatabaseUtil.getConnection();
+            try {
+                if (isolationLevel != DEFAULT_ISOLATION) {
+                    acquired.setTransactionIsolation(isolationLevel);
+                }
+            } catch (SQLException e) {
+                acquired.close();
+                throw e;
+            }
+            connection = acquired;
+            log.debug("首次执行SQL，获取事务连接");
+        }
+        return connection;
+    }
+
+    public boolean hasConnection() {
+        return connection != null;
+    }
+
+    /**
+     * 取得缓存的语句，调用方不要关闭返回的语句
+     */
+    public PreparedStatement prepareStatement(String sql) throws SQLException {
+        if (statements == null) {
+            statements = new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, PreparedStatement> eldest) {
+                    if (size() <= MAX_CACHED_STATEMENTS) {
+                        return false;
+                    }
+                    closeQuietly(eldest.getValue());
+                    return true;
+                }
+            };
+        }
+        PreparedStatement stmt = statements.get(sql);
+        if (stmt == null || stmt.isClosed()) {
+            stmt = getConnection().prepareStatement(sql);
+            statements.put(sql, stmt);
+        } else {
+            log.debug("复用事务内已准备的语句");
+        }
+        return stmt;
+    }
+
+    /**
+     * 关闭缓存的语句并归还连接
+     */
+    public void close() throws SQLException {
+        if (statements != null) {
+            for (PreparedStatement stmt : statements.values()) {
+                closeQuietly(stmt);
+            }
+            statements = null;
+        }
+        if (connection != null && !connection.isClosed()) {
+            connection.close();
+        }
+    }
+
+    private static void closeQuietly(PreparedStatement stmt) {
+        try {
+            stmt.close();
+        } catch (SQLException e) {
+            log.warn("关闭语句失败: {}", e.getMessage());
+        }
+    }
+}
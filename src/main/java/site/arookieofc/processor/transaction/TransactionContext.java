@@ -0,0 +1,46 @@
+package site.arookieofc.processor.transaction;
+
+import java.util.Arrays;
+
+/**
+ * 单个线程的事务状态栈
+ * 只被所属线程访问，用数组实现且不加锁；栈顶之外的状态对应被挂起或被嵌套的外层事务
+ */
+final class TransactionContext {
+
+    private TransactionStatus[] statuses = new TransactionStatus[4];
+    private int size;
+
+    void push(TransactionStatus status) {
+        if (size == statuses.length) {
+            statuses = Arrays.copyOf(statuses, size << 1);
+        }
+        statuses[size++] = status;
+    }
+
+    TransactionStatus pop() {
+        TransactionStatus status = statuses[--size];
+        statuses[size] = null;
+        return status;
+    }
+
+    TransactionStatus peek() {
+        return size == 0 ? null : statuses[size - 1];
+    }
+
+    /**
+     * 栈顶的未完成事务；栈顶是非事务状态（SUPPORTS、NOT_SUPPORTED等挂起外层事务）时返回null
+     */
+    TransactionStatus active() {
+        TransactionStatus top = peek();
+        return top == null || top.isCompleted() || !top.isTransactional() ? null : top;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    int depth() {
+        return size;
+    }
+}
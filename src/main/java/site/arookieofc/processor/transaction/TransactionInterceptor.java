@@ -1,164 +1,122 @@
 package site.arookieofc.processor.transaction;
 
-import lombok.AccessLevel;
-import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import site.arookieofc.annotation.ioc.Bean;
 import site.arookieofc.annotation.transactional.Transactional;
-import java.lang.reflect.InvocationHandler;
+import site.arookieofc.processor.aop.MethodInterceptor;
+import site.arookieofc.processor.aop.MethodInvocation;
 import java.lang.reflect.Method;
-import java.lang.reflect.Proxy;
 import java.sql.SQLException;
-import java.util.Arrays;
 
+/**
+ * 事务拦截器
+ * 处理实现方法或实现类上的@Transactional；加入外层事务时不提交，
+ * 需要回滚的异常只把外层事务标记为仅回滚，由开启事务的一层统一提交或回滚
+ */
 @Slf4j
-@AllArgsConstructor(access = AccessLevel.PRIVATE)
-public class TransactionInterceptor implements InvocationHandler {
-    
-    private final Object target;
-
-    @SuppressWarnings("unchecked")
-    public static <T> T createProxy(T target) {
-        // 获取目标类实现的所有接口，包括父类实现的接口
-        Class<?>[] interfaces = getAllInterfaces(target.getClass());
-
-        log.debug("为目标对象创建事务代理: {}, 实现接口数量: {}",
-                target.getClass().getName(),
-                interfaces.length);
-
-        return (T) Proxy.newProxyInstance(
-                target.getClass().getClassLoader(),
-                interfaces,
-                new TransactionInterceptor(target)
-        );
+public class TransactionInterceptor implements MethodInterceptor {
+
+    @Override
+    public boolean appliesTo(Method method, Class<?> targetClass) {
+        return getTransactionalAnnotation(method, targetClass) != null;
     }
-    
+
     @Override
-    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
-        Transactional transactional = getTransactionalAnnotation(method);
-        if (transactional == null) {
-            return method.invoke(target, args);
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        Method method = invocation.getMethod();
+        Class<?> targetClass = invocation.getTarget().getClass();
+        Transactional transactional = getTransactionalAnnotation(method, targetClass);
+        if (log.isDebugEnabled()) {
+            log.debug("开始执行事务方法: {}.{}", targetClass.getSimpleName(), method.getName());
         }
-        log.debug("开始执行事务方法: {}.{}", target.getClass().getSimpleName(), method.getName());
-        return executeInTransaction(transactional, method, args);
+        return executeInTransaction(transactional, invocation);
     }
 
-    private Transactional getTransactionalAnnotation(Method method) {
+    private static Transactional getTransactionalAnnotation(Method method, Class<?> targetClass) {
         // 先检查方法级别的注解
         Transactional transactional = method.getAnnotation(Transactional.class);
         if (transactional != null) {
             return transactional;
         }
-        
+
         // 再检查类级别的注解
-        return target.getClass().getAnnotation(Transactional.class);
+        return targetClass.getAnnotation(Transactional.class);
     }
 
-    private Object executeInTransaction(Transactional transactional, Method method, Object[] args) throws Throwable {
-        TransactionStatus status = null;
+    private Object executeInTransaction(Transactional transactional, MethodInvocation invocation) throws Throwable {
+        Method method = invocation.getMethod();
+        String targetName = invocation.getTarget().getClass().getSimpleName();
         long startTime = System.currentTimeMillis();
-        
+
+        TransactionStatus outer = TransactionManager.getCurrentTransaction();
+        TransactionStatus status = TransactionManager.begin(transactional.propagation(), transactional.isolation());
+        // 加入已存在的事务时，提交和回滚由外层负责
+        boolean participating = status == outer;
+        if (log.isDebugEnabled()) {
+            log.debug("事务已开始: {}.{}, 传播行为: {}, 隔离级别: {}, 加入外层事务: {}",
+                    targetName, method.getName(), transactional.propagation(), transactional.isolation(), participating);
+        }
+
+        Object result;
         try {
-            // 开始事务
-            status = TransactionManager.begin(transactional.propagation(), transactional.isolation());
-            log.debug("事务已开始: {}.{}, 传播行为: {}, 隔离级别: {}", 
-                    target.getClass().getSimpleName(), 
-                    method.getName(), 
-                    transactional.propagation(), 
-                    transactional.isolation());
-            
-            // 执行目标方法
-            Object result = method.invoke(target, args);
-            
-            // 提交事务
-            TransactionManager.commit(status);
-            long executionTime = System.currentTimeMillis() - startTime;
-            log.debug("事务已提交: {}.{}, 耗时: {}ms", 
-                    target.getClass().getSimpleName(), 
-                    method.getName(), 
-                    executionTime);
-            return result;
-            
+            result = invocation.proceed();
         } catch (Throwable ex) {
-            // 检查是否应该回滚事务
-            if (status != null) {
-                // 获取实际异常
-                Throwable actualException = ex;
-                if (ex instanceof java.lang.reflect.InvocationTargetException) {
-                    Throwable targetEx = ((java.lang.reflect.InvocationTargetException) ex).getTargetException();
-                    if (targetEx != null) {
-                        actualException = targetEx;
-                    }
-                }
-                
-                // 检查是否应该回滚
-                if (shouldRollback(transactional, actualException)) {
-                    log.error("执行事务回滚: {}.{}, 异常类型: {}, 异常信息: {}", 
-                            target.getClass().getSimpleName(), 
-                            method.getName(), 
-                            actualException.getClass().getName(), 
-                            actualException.getMessage());
-                    TransactionManager.rollback(status);
-                } else {
-                    log.debug("不回滚事务: {}.{}, 异常类型: {} 不在rollbackFor列表中", 
-                            target.getClass().getSimpleName(), 
-                            method.getName(), 
-                            actualException.getClass().getName());
-                    try {
-                        TransactionManager.commit(status);
-                    } catch (SQLException e) {
-                        log.error("提交事务失败", e);
-                    }
-                }
+            completeAfterException(transactional, status, participating, targetName, method, ex);
+            throw ex;
+        }
+
+        if (!participating) {
+            TransactionManager.commit(status);
+            if (log.isDebugEnabled()) {
+                log.debug("事务已提交: {}.{}, 耗时: {}ms",
+                        targetName, method.getName(), System.currentTimeMillis() - startTime);
             }
-            
-            // 改进的异常处理逻辑
-            Throwable actualException = ex;
-
-            if (ex instanceof java.lang.reflect.InvocationTargetException) {
-                Throwable targetEx = ((java.lang.reflect.InvocationTargetException) ex).getTargetException();
-                if (targetEx != null) {
-                    actualException = targetEx;
-                    log.error("事务方法执行异常: {}.{}, 目标异常: {}, 异常信息: {}", 
-                            target.getClass().getSimpleName(), 
-                            method.getName(), 
-                            targetEx.getClass().getName(), 
-                            targetEx.getMessage(), 
-                            targetEx);
+        }
+        return result;
+    }
+
+    private void completeAfterException(Transactional transactional, TransactionStatus status, boolean participating,
+                                        String targetName, Method method, Throwable ex) {
+        log.error("事务方法执行异常: {}.{}, 异常类型: {}, 异常信息: {}",
+                targetName, method.getName(), ex.getClass().getName(), ex.getMessage());
+
+        if (!shouldRollback(transactional, ex)) {
+            log.debug("不回滚事务: {}.{}, 异常类型: {} 不在rollbackFor列表中",
+                    targetName, method.getName(), ex.getClass().getName());
+            if (!participating) {
+                try {
+                    TransactionManager.commit(status);
+                } catch (SQLException e) {
+                    log.error("提交事务失败", e);
+                    ex.addSuppressed(e);
                 }
-            } else {
-                log.error("事务方法执行异常: {}.{}, 异常信息: {}", 
-                        target.getClass().getSimpleName(), 
-                        method.getName(), 
-                        ex.getMessage(), 
-                        ex);
             }
-            
-            throw actualException;
+            return;
+        }
+
+        if (participating) {
+            log.debug("内层方法异常，标记外层事务为仅回滚: {}.{}", targetName, method.getName());
+            status.setRollbackOnly();
+            return;
+        }
+
+        log.error("执行事务回滚: {}.{}", targetName, method.getName());
+        try {
+            TransactionManager.rollback(status);
+        } catch (SQLException e) {
+            log.error("回滚事务失败", e);
+            ex.addSuppressed(e);
         }
     }
 
     private boolean shouldRollback(Transactional transactional, Throwable ex) {
         Class<? extends Throwable>[] rollbackFor = transactional.rollbackFor();
-        
+
         for (Class<? extends Throwable> rollbackClass : rollbackFor) {
             if (rollbackClass.isAssignableFrom(ex.getClass())) {
                 return true;
             }
         }
-        
-        return false;
-    }
 
-    private static Class<?>[] getAllInterfaces(Class<?> clazz) {
-        if (clazz == null) {
-            return new Class[0];
-        }
-        java.util.Set<Class<?>> interfacesSet = new java.util.LinkedHashSet<>(Arrays.asList(clazz.getInterfaces()));
-        Class<?> superclass = clazz.getSuperclass();
-        if (superclass != null && superclass != Object.class) {
-            interfacesSet.addAll(Arrays.asList(getAllInterfaces(superclass)));
-        }
-        return interfacesSet.toArray(new Class<?>[0]);
+        return false;
     }
-}
\ No newline at end of file
+}
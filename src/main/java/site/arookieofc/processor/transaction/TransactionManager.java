@@ -3,31 +3,31 @@ package site.arookieofc.processor.transaction;
 import lombok.extern.slf4j.Slf4j;
 import site.arookieofc.annotation.transactional.Isolation;
 import site.arookieofc.annotation.transactional.Propagation;
-import site.arookieofc.utils.DatabaseUtil;
 import java.sql.Connection;
 import java.sql.SQLException;
-import java.util.Stack;
 
 /**
  * 事务管理器
  */
 @Slf4j
 public class TransactionManager {
-    
-    // 使用ThreadLocal存储当前线程的事务状态栈
-    private static final ThreadLocal<Stack<TransactionStatus>> transactionStack = 
-        ThreadLocal.withInitial(Stack::new);
+
+    // 使用ThreadLocal存储当前线程的事务状态栈；只在开启事务时创建，栈清空后移除，
+    // 因此不在事务中的线程读到null，getCurrentTransaction只需一次ThreadLocal读取且不涉及线程间共享状态
+    private static final ThreadLocal<TransactionContext> contexts = new ThreadLocal<>();
 
     public static TransactionStatus begin(Propagation propagation, Isolation isolation) throws SQLException {
-        Stack<TransactionStatus> stack = transactionStack.get();
-        TransactionStatus currentStatus = stack.isEmpty() ? null : stack.peek();
-        
-        log.debug("开始事务, 传播行为: {}, 隔离级别: {}, 当前事务栈深度: {}", 
-                propagation, isolation, stack.size());
-        
+        TransactionContext context = contexts.get();
+        TransactionStatus currentStatus = context == null ? null : context.active();
+
+        if (log.isDebugEnabled()) {
+            log.debug("开始事务, 传播行为: {}, 隔离级别: {}, 当前事务栈深度: {}",
+                    propagation, isolation, context == null ? 0 : context.depth());
+        }
+
         switch (propagation) {
             case REQUIRED:
-                if (currentStatus != null && !currentStatus.isCompleted()) {
+                if (currentStatus != null) {
                     // 加入当前事务
                     log.debug("REQUIRED: 加入已存在的事务");
                     return currentStatus;
@@ -36,14 +36,14 @@ public class TransactionManager {
                     log.debug("REQUIRED: 创建新事务");
                     return createNewTransaction(isolation);
                 }
-                
+
             case REQUIRES_NEW:
                 // 总是创建新事务
                 log.debug("REQUIRES_NEW: 创建新事务");
                 return createNewTransaction(isolation);
-                
+
             case SUPPORTS:
-                if (currentStatus != null && !currentStatus.isCompleted()) {
+                if (currentStatus != null) {
                     log.debug("SUPPORTS: 加入已存在的事务");
                     return currentStatus;
                 } else {
@@ -51,64 +51,72 @@ public class TransactionManager {
                     log.debug("SUPPORTS: 以非事务方式运行");
                     return createNonTransactionalStatus();
                 }
-                
+
             case NOT_SUPPORTED:
-                // 非事务方式运行
+                // 非事务方式运行，外层事务在此期间被挂起
                 log.debug("NOT_SUPPORTED: 以非事务方式运行");
                 return createNonTransactionalStatus();
-                
+
             case NEVER:
-                if (currentStatus != null && !currentStatus.isCompleted()) {
+                if (currentStatus != null) {
                     log.error("NEVER: 当前存在事务，但传播行为为NEVER");
                     throw new RuntimeException("当前存在事务，但传播行为为NEVER");
                 }
                 log.debug("NEVER: 以非事务方式运行");
                 return createNonTransactionalStatus();
-                
+
             case MANDATORY:
-                if (currentStatus == null || currentStatus.isCompleted()) {
+                if (currentStatus == null) {
                     log.error("MANDATORY: 当前不存在事务，但传播行为为MANDATORY");
                     throw new RuntimeException("当前不存在事务，但传播行为为MANDATORY");
                 }
                 log.debug("MANDATORY: 加入已存在的事务");
                 return currentStatus;
-                
+
+            case NESTED:
+                if (currentStatus != null) {
+                    log.debug("NESTED: 在当前事务中创建保存点");
+                    return pushStatus(TransactionStatus.nested(currentStatus));
+                }
+                log.debug("NESTED: 当前不存在事务，创建新事务");
+                return createNewTransaction(isolation);
+
             default:
                 log.debug("默认: 创建新事务");
                 return createNewTransaction(isolation);
         }
     }
 
-    private static TransactionStatus createNewTransaction(Isolation isolation) throws SQLException {
-        Connection connection = DatabaseUtil.getConnection();
+    private static TransactionStatus createNewTransaction(Isolation isolation) {
+        // 连接在首次执行SQL时获取，并在获取时设置隔离级别
+        return pushStatus(new TransactionStatus(new ConnectionHolder(isolationLevel(isolation)), true));
+    }
 
-        // 设置隔离级别
-        setIsolationLevel(connection, isolation);
-        
-        TransactionStatus status = new TransactionStatus(connection, true);
-        transactionStack.get().push(status);
-        log.debug("创建新事务, 隔离级别: {}, 当前事务栈深度: {}", isolation, transactionStack.get().size());
-        return status;
+    private static TransactionStatus createNonTransactionalStatus() {
+        return pushStatus(new TransactionStatus(new ConnectionHolder(ConnectionHolder.DEFAULT_ISOLATION), false));
     }
 
-    private static TransactionStatus createNonTransactionalStatus() throws SQLException {
-        Connection connection = DatabaseUtil.getConnection();
-        
-        TransactionStatus status = new TransactionStatus(connection, false);
-        transactionStack.get().push(status);
-        log.debug("创建非事务连接, 当前事务栈深度: {}", transactionStack.get().size());
+    private static TransactionStatus pushStatus(TransactionStatus status) {
+        TransactionContext context = contexts.get();
+        if (context == null) {
+            context = new TransactionContext();
+            contexts.set(context);
+        }
+        context.push(status);
+        if (log.isDebugEnabled()) {
+            log.debug("事务状态入栈, 事务: {}, 嵌套: {}, 当前事务栈深度: {}",
+                    status.isTransactional(), status.isNested(), context.depth());
+        }
         return status;
     }
 
-    private static void setIsolationLevel(Connection connection, Isolation isolation) throws SQLException {
-        int level = switch (isolation) {
+    private static int isolationLevel(Isolation isolation) {
+        return switch (isolation) {
             case READ_UNCOMMITTED -> Connection.TRANSACTION_READ_UNCOMMITTED;
             case REPEATABLE_READ -> Connection.TRANSACTION_REPEATABLE_READ;
             case SERIALIZABLE -> Connection.TRANSACTION_SERIALIZABLE;
             default -> Connection.TRANSACTION_READ_COMMITTED;
         };
-        connection.setTransactionIsolation(level);
-        log.debug("设置事务隔离级别: {}", isolation);
     }
 
     public static void commit(TransactionStatus status) throws SQLException {
@@ -116,32 +124,46 @@ public class TransactionManager {
             log.warn("尝试提交空事务状态");
             return;
         }
-        
+
         if (status.isCompleted()) {
             log.warn("尝试提交已完成的事务");
             return;
         }
-        
-        Stack<TransactionStatus> stack = transactionStack.get();
-        if (stack.isEmpty()) {
+
+        TransactionContext context = contexts.get();
+        if (context == null) {
             log.error("事务栈为空，无法提交事务");
             throw new IllegalStateException("事务栈为空");
         }
-        
+
         // 只有当前事务才能被提交
-        if (stack.peek() != status) {
+        if (context.peek() != status) {
             log.warn("尝试提交非当前事务，忽略");
             return;
         }
-        
+
+        if (status.isRollbackOnly()) {
+            // 内层方法已要求回滚，外层吞掉异常也不能提交
+            rollback(status);
+            throw new IllegalStateException("事务已被标记为仅回滚，已回滚而未提交");
+        }
+
         try {
-            if (status.isTransactional()) {
+            if (status.isNested()) {
+                status.releaseSavepoint();
+                log.debug("嵌套事务已提交，修改并入外层事务");
+                return;
+            }
+            if (status.isTransactional() && status.hasConnection()) {
                 status.getConnection().commit();
                 log.debug("事务已提交");
+            } else if (status.isTransactional()) {
+                log.debug("事务内未执行SQL，无需提交");
             }
         } finally {
-            cleanupTransaction(status);
+            cleanupTransaction(context, status);
         }
+        status.runAfterCommit();
     }
 
     public static void rollback(TransactionStatus status) throws SQLException {
@@ -149,55 +171,59 @@ public class TransactionManager {
             log.warn("尝试回滚空事务状态");
             return;
         }
-        
+
         if (status.isCompleted()) {
             log.warn("尝试回滚已完成的事务");
             return;
         }
-        
-        Stack<TransactionStatus> stack = transactionStack.get();
-        if (stack.isEmpty()) {
+
+        TransactionContext context = contexts.get();
+        if (context == null) {
             log.error("事务栈为空，无法回滚事务");
             throw new IllegalStateException("事务栈为空");
         }
-        
+
         // 只有当前事务才能被回滚
-        if (stack.peek() != status) {
+        if (context.peek() != status) {
             log.warn("尝试回滚非当前事务，忽略");
             return;
         }
-        
+
         try {
-            if (status.isTransactional()) {
+            if (status.isNested()) {
+                status.rollbackToSavepoint();
+                log.debug("嵌套事务已回滚到保存点");
+            } else if (status.isTransactional() && status.hasConnection()) {
                 status.getConnection().rollback();
                 log.debug("事务已回滚");
             }
         } finally {
-            cleanupTransaction(status);
+            cleanupTransaction(context, status);
         }
     }
 
-    private static void cleanupTransaction(TransactionStatus status) {
+    private static void cleanupTransaction(TransactionContext context, TransactionStatus status) {
         try {
             status.setCompleted();
-            Stack<TransactionStatus> stack = transactionStack.get();
-            stack.pop();
-            log.debug("事务已清理，当前事务栈深度: {}", stack.size());
-            
-            if (!status.getConnection().isClosed()) {
-                status.getConnection().close();
+            context.pop();
+            if (context.isEmpty()) {
+                contexts.remove();
             }
+            if (log.isDebugEnabled()) {
+                log.debug("事务已清理，当前事务栈深度: {}", context.depth());
+            }
+
+            status.release();
         } catch (SQLException e) {
             log.error("关闭数据库连接失败", e);
         }
     }
 
+    /**
+     * 当前线程进行中的事务；不在事务中或外层事务被SUPPORTS/NOT_SUPPORTED挂起时返回null
+     */
     public static TransactionStatus getCurrentTransaction() {
-        Stack<TransactionStatus> stack = transactionStack.get();
-        if (stack.isEmpty()) {
-            return null;
-        }
-        TransactionStatus status = stack.peek();
-        return status.isCompleted() ? null : status;
+        TransactionContext context = contexts.get();
+        return context == null ? null : context.active();
     }
-}
\ No newline at end of file
+}
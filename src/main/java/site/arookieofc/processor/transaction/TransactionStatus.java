@@ -1,23 +1,111 @@
 package site.arookieofc.processor.transaction;
 
+import lombok.AccessLevel;
 import lombok.Getter;
 import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Savepoint;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
 
 /**
  * 事务状态
+ * NESTED事务与外层共用连接、脏表记录和提交回调，只额外持有一个保存点
  */
 @Getter
 public class TransactionStatus {
-    private final Connection connection;
+    @Getter(AccessLevel.NONE)
+    private final ConnectionHolder connectionHolder;
     private final boolean newTransaction;
+    private final boolean nested;
     private boolean rollbackOnly;
     private boolean completed;
 
-    public TransactionStatus(Connection connection, boolean newTransaction) {
-        this.connection = connection;
+    // 嵌套事务开始时外层尚未获取连接则为null，回滚时直接回滚整个连接
+    @Getter(AccessLevel.NONE)
+    private Savepoint savepoint;
+
+    @Getter(AccessLevel.NONE)
+    private final Set<String> dirtyTables;
+
+    @Getter(AccessLevel.NONE)
+    private final List<Runnable> afterCommitCallbacks;
+
+    public TransactionStatus(ConnectionHolder connectionHolder, boolean newTransaction) {
+        this.connectionHolder = connectionHolder;
         this.newTransaction = newTransaction;
+        this.nested = false;
         this.rollbackOnly = false;
         this.completed = false;
+        this.dirtyTables = new HashSet<>();
+        this.afterCommitCallbacks = new ArrayList<>();
+    }
+
+    private TransactionStatus(TransactionStatus outer) {
+        this.connectionHolder = outer.connectionHolder;
+        this.newTransaction = true;
+        this.nested = true;
+        this.dirtyTables = outer.dirtyTables;
+        this.afterCommitCallbacks = outer.afterCommitCallbacks;
+    }
+
+    /**
+     * 在外层事务中开启嵌套事务；外层已持有连接时立即设置保存点
+     */
+    static TransactionStatus nested(TransactionStatus outer) throws SQLException {
+        TransactionStatus status = new TransactionStatus(outer);
+        if (outer.hasConnection()) {
+            status.savepoint = outer.getConnection().setSavepoint();
+        }
+        return status;
+    }
+
+    /**
+     * 事务连接，首次调用时才从连接池获取
+     */
+    public Connection getConnection() throws SQLException {
+        return connectionHolder.getConnection();
+    }
+
+    public boolean hasConnection() {
+        return connectionHolder.hasConnection();
+    }
+
+    /**
+     * 事务内按SQL文本复用的语句，由事务结束时统一关闭
+     */
+    public PreparedStatement prepareStatement(String sql) throws SQLException {
+        return connectionHolder.prepareStatement(sql);
+    }
+
+    /**
+     * 嵌套事务提交：释放保存点，修改并入外层事务
+     */
+    void releaseSavepoint() throws SQLException {
+        if (savepoint != null) {
+            connectionHolder.getConnection().releaseSavepoint(savepoint);
+        }
+    }
+
+    /**
+     * 嵌套事务回滚：回到保存点，外层事务继续
+     */
+    void rollbackToSavepoint() throws SQLException {
+        if (savepoint != null) {
+            connectionHolder.getConnection().rollback(savepoint);
+        } else if (connectionHolder.hasConnection()) {
+            connectionHolder.getConnection().rollback();
+        }
+    }
+
+    void release() throws SQLException {
+        if (!nested) {
+            connectionHolder.close();
+        }
     }
 
     public void setRollbackOnly() {
@@ -28,6 +116,38 @@ public class TransactionStatus {
         this.completed = true;
     }
 
+    /**
+     * 记录本事务写过的表，首次记录时返回true
+     */
+    public boolean markDirty(String table) {
+        return dirtyTables.add(table);
+    }
+
+    public boolean isDirty(Collection<String> tables) {
+        if (dirtyTables.isEmpty()) {
+            return false;
+        }
+        for (String table : tables) {
+            if (dirtyTables.contains(table)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 注册事务提交成功后执行的回调
+     */
+    public void afterCommit(Runnable callback) {
+        afterCommitCallbacks.add(callback);
+    }
+
+    void runAfterCommit() {
+        for (Runnable callback : afterCommitCallbacks) {
+            callback.run();
+        }
+    }
+
     public boolean isTransactional(){
         return this.newTransaction;
     }
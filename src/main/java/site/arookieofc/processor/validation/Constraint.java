@@ -0,0 +1,60 @@
+package site.arookieofc.processor.validation;
+
+import site.arookieofc.annotation.validation.*;
+import java.lang.reflect.AnnotatedElement;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 编译后的单条约束
+ * 注解属性在编译时读出，校验时直接调用ValidationProcessor中对应的方法，失败时抛出IllegalArgumentException
+ */
+@FunctionalInterface
+interface Constraint {
+
+    Constraint[] NONE = new Constraint[0];
+
+    void check(Object value, String name);
+
+    /**
+     * 按@Need、@NotNull、@NotEmpty、@Range、@Size、@Exists的顺序读取字段或参数上的约束
+     */
+    static Constraint[] of(AnnotatedElement element) {
+        List<Constraint> constraints = new ArrayList<>(2);
+        Need need = element.getAnnotation(Need.class);
+        if (need != null) {
+            String message = need.message();
+            constraints.add((value, name) -> ValidationProcessor.validateNeed(value, name, message));
+        }
+        NotNull notNull = element.getAnnotation(NotNull.class);
+        if (notNull != null) {
+            String message = notNull.message();
+            constraints.add((value, name) -> ValidationProcessor.validateNotNull(value, name, message));
+        }
+        NotEmpty notEmpty = element.getAnnotation(NotEmpty.class);
+        if (notEmpty != null) {
+            String message = notEmpty.message();
+            constraints.add((value, name) -> ValidationProcessor.validateNotEmpty(value, name, message));
+        }
+        Range range = element.getAnnotation(Range.class);
+        if (range != null) {
+            long min = range.min();
+            long max = range.max();
+            String message = range.message();
+            constraints.add((value, name) -> ValidationProcessor.validateRange(value, name, min, max, message));
+        }
+        Size size = element.getAnnotation(Size.class);
+        if (size != null) {
+            int min = size.min();
+            int max = size.max();
+            String message = size.message();
+            constraints.add((value, name) -> ValidationProcessor.validateSize(value, name, min, max, message));
+        }
+        Exists exists = element.getAnnotation(Exists.class);
+        if (exists != null) {
+            String message = exists.message();
+            constraints.add((value, name) -> ValidationProcessor.validateExists(value, name, message));
+        }
+        return constraints.toArray(NONE);
+    }
+}
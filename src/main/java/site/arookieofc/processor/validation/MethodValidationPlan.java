@@ -0,0 +1,100 @@
+package site.arookieofc.processor.validation;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Parameter;
+
+/**
+ * 方法参数验证计划
+ * 建链时为每个方法编译一次：参数上的约束，以及哪些参数需要按运行时类型校验对象字段；
+ * 参数没有约束、且参数对象的运行时类型不可能带约束时得到空计划，不会被验证拦截器拦截。
+ * 声明类型是非final的项目类型（接口、父类）或Object时，实参可能是带约束的子类，保留拦截
+ */
+final class MethodValidationPlan {
+
+    private final String methodName;
+    private final String[] names;
+    private final Constraint[][] constraints;
+    // 参数不是基本类型、包装类型或String时，按实参的运行时类型校验字段
+    private final boolean[] validateFields;
+    private final boolean empty;
+
+    private MethodValidationPlan(Method method) {
+        Parameter[] parameters = method.getParameters();
+        this.methodName = method.getName();
+        this.names = new String[parameters.length];
+        this.constraints = new Constraint[parameters.length][];
+        this.validateFields = new boolean[parameters.length];
+
+        boolean hasConstraints = false;
+        for (int i = 0; i < parameters.length; i++) {
+            names[i] = parameters[i].getName();
+            constraints[i] = Constraint.of(parameters[i]);
+            validateFields[i] = notPrimitiveOrWrapper(parameters[i].getType());
+            hasConstraints |= constraints[i].length > 0
+                    || (validateFields[i] && mayCarryConstraints(parameters[i].getType()));
+        }
+        this.empty = !hasConstraints;
+    }
+
+    static MethodValidationPlan compile(Method method) {
+        return new MethodValidationPlan(method);
+    }
+
+    boolean isEmpty() {
+        return empty;
+    }
+
+    String getMethodName() {
+        return methodName;
+    }
+
+    void validate(Object[] args) {
+        int count = args == null ? 0 : args.length;
+        if (count != names.length) {
+            throw new IllegalArgumentException("参数数量不匹配");
+        }
+        // 先校验全部参数上的约束，再校验参数对象的字段，与逐个反射校验时的顺序一致
+        for (int i = 0; i < count; i++) {
+            for (Constraint constraint : constraints[i]) {
+                constraint.check(args[i], names[i]);
+            }
+        }
+        for (int i = 0; i < count; i++) {
+            Object arg = args[i];
+            if (validateFields[i] && arg != null) {
+                ObjectValidationPlan.of(arg.getClass()).validate(arg);
+            }
+        }
+    }
+
+    /**
+     * 声明类型本身带约束，或实参可能是带约束的子类型
+     */
+    private static boolean mayCarryConstraints(Class<?> type) {
+        if (!ObjectValidationPlan.of(type).isEmpty()) {
+            return true;
+        }
+        if (type == Object.class) {
+            return true;
+        }
+        if (type.isArray() || Modifier.isFinal(type.getModifiers()) || type.isEnum()) {
+            return false;
+        }
+        // JDK类型（集合、时间等）的实参按惯例也是JDK实现，不会带验证注解
+        return type.getClassLoader() != null;
+    }
+
+    static boolean notPrimitiveOrWrapper(Class<?> clazz) {
+        return !clazz.isPrimitive() &&
+                clazz != String.class &&
+                clazz != Integer.class &&
+                clazz != Long.class &&
+                clazz != Double.class &&
+                clazz != Float.class &&
+                clazz != Boolean.class &&
+                clazz != Character.class &&
+                clazz != Byte.class &&
+                clazz != Short.class;
+    }
+}
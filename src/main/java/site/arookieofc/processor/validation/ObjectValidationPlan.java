@@ -0,0 +1,71 @@
+package site.arookieofc.processor.validation;
+
+import lombok.extern.slf4j.Slf4j;
+import site.arookieofc.utils.BeanAccessors;
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * 对象字段验证计划
+ * 每个类编译一次：只为带验证注解的声明字段生成访问器和约束，校验时不再遍历字段和读取注解；
+ * 没有约束的类（包括集合等JDK类型）得到空计划，不会访问其私有字段
+ */
+@Slf4j
+final class ObjectValidationPlan {
+
+    private static final ObjectValidationPlan EMPTY = new ObjectValidationPlan(new FieldCheck[0]);
+
+    private static final Map<Class<?>, ObjectValidationPlan> plans = new ConcurrentHashMap<>();
+
+    private final FieldCheck[] checks;
+
+    private ObjectValidationPlan(FieldCheck[] checks) {
+        this.checks = checks;
+    }
+
+    static ObjectValidationPlan of(Class<?> clazz) {
+        ObjectValidationPlan plan = plans.get(clazz);
+        return plan != null ? plan : plans.computeIfAbsent(clazz, ObjectValidationPlan::compile);
+    }
+
+    private static ObjectValidationPlan compile(Class<?> clazz) {
+        List<FieldCheck> checks = new ArrayList<>();
+        for (Field field : clazz.getDeclaredFields()) {
+            Constraint[] constraints = Constraint.of(field);
+            if (constraints.length > 0) {
+                checks.add(new FieldCheck(field.getName(), BeanAccessors.fieldGetter(clazz, field), constraints));
+            }
+        }
+        if (checks.isEmpty()) {
+            return EMPTY;
+        }
+        log.debug("编译字段验证计划: {}, 字段数量: {}", clazz.getName(), checks.size());
+        return new ObjectValidationPlan(checks.toArray(new FieldCheck[0]));
+    }
+
+    boolean isEmpty() {
+        return checks.length == 0;
+    }
+
+    void validate(Object obj) {
+        for (FieldCheck check : checks) {
+            Object value;
+            try {
+                value = check.getter.apply(obj);
+            } catch (RuntimeException e) {
+                log.error("无法访问字段: {}", check.name, e);
+                throw new IllegalArgumentException("字段访问失败: " + check.name);
+            }
+            for (Constraint constraint : check.constraints) {
+                constraint.check(value, check.name);
+            }
+        }
+    }
+
+    private record FieldCheck(String name, Function<Object, Object> getter, Constraint[] constraints) {
+    }
+}
@@ -69,24 +69,14 @@ public class ValidationProcessor {
         }
     }
 
+    /**
+     * 按对象的运行时类型校验带验证注解的字段，字段访问器和约束每个类只编译一次
+     */
     public static void validateObject(Object obj) {
         if (obj == null) {
             throw new IllegalArgumentException("验证对象不能为null");
         }
-
-        Class<?> clazz = obj.getClass();
-        Field[] fields = clazz.getDeclaredFields();
-
-        for (Field field : fields) {
-            field.setAccessible(true);
-            try {
-                Object value = field.get(obj);
-                validateField(field, value, field.getName());
-            } catch (IllegalAccessException e) {
-                log.error("无法访问字段: {}", field.getName(), e);
-                throw new IllegalArgumentException("字段访问失败: " + field.getName());
-            }
-        }
+        ObjectValidationPlan.of(obj.getClass()).validate(obj);
     }
 
     public static void validateField(Field field, Object value, String fieldName) {
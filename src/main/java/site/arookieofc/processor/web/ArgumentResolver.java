@@ -0,0 +1,14 @@
+package site.arookieofc.processor.web;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * 控制器方法参数解析器
+ * 注册路由时按参数注解和类型生成，请求时只按下标取值和类型转换
+ */
+@FunctionalInterface
+interface ArgumentResolver {
+
+    Object resolve(HttpServletRequest req, HttpServletResponse resp, RouteTrie.Match<?> match) throws Exception;
+}
@@ -6,12 +6,13 @@ import site.arookieofc.Main;
 import site.arookieofc.annotation.web.ControllerException;
 import site.arookieofc.annotation.web.ExceptionHandler;
 import site.arookieofc.pojo.dto.Result;
+import site.arookieofc.processor.index.ComponentIndex;
 import site.arookieofc.processor.ioc.ApplicationContextHolder;
-import site.arookieofc.utils.JsonUtils;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import java.io.IOException;
 import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 
@@ -22,6 +23,7 @@ import java.util.concurrent.ConcurrentHashMap;
 public class GlobalExceptionHandler {
     
     private static final Map<Class<? extends Throwable>, ExceptionHandlerInfo> exceptionHandlers = new ConcurrentHashMap<>();
+    private static final byte[] SERIALIZATION_FAILED_BODY = "{\"code\":500,\"msg\":\"序列化响应失败\"}".getBytes(StandardCharsets.UTF_8);
     
     static {
         scanExceptionHandlers();
@@ -32,49 +34,15 @@ public class GlobalExceptionHandler {
             // 扫描所有带有@ControllerAdvice注解的类
             String basePackage = Main.class.getPackage().getName();
             log.info("开始扫描异常处理器: {}", basePackage);
-            scanPackageForExceptionHandlers(basePackage);
+            for (Class<?> clazz : ComponentIndex.getClasses(ComponentIndex.EXCEPTION_HANDLER, basePackage)) {
+                processExceptionHandlerClass(clazz);
+            }
             log.info("异常处理器扫描完成，共注册{}个处理器", exceptionHandlers.size());
         } catch (Exception e) {
             log.error("扫描异常处理器失败", e);
         }
     }
     
-    private static void scanPackageForExceptionHandlers(String packageName) {
-        try {
-            String packagePath = packageName.replace('.', '/');
-            ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
-            java.net.URL resource = classLoader.getResource(packagePath);
-            
-            if (resource != null) {
-                java.io.File directory = new java.io.File(resource.getFile());
-                if (directory.exists() && directory.isDirectory()) {
-                    scanDirectoryForExceptionHandlers(directory, packageName);
-                }
-            }
-        } catch (Exception e) {
-            log.error("扫描包失败: {}", packageName, e);
-        }
-    }
-    
-    private static void scanDirectoryForExceptionHandlers(java.io.File directory, String packageName) {
-        java.io.File[] files = directory.listFiles();
-        if (files == null) return;
-        
-        for (java.io.File file : files) {
-            if (file.isDirectory()) {
-                scanDirectoryForExceptionHandlers(file, packageName + "." + file.getName());
-            } else if (file.getName().endsWith(".class")) {
-                String className = packageName + "." + file.getName().substring(0, file.getName().length() - 6);
-                try {
-                    Class<?> clazz = Class.forName(className);
-                    processExceptionHandlerClass(clazz);
-                } catch (ClassNotFoundException e) {
-                    // 忽略无法加载的类
-                }
-            }
-        }
-    }
-    
     private static void processExceptionHandlerClass(Class<?> clazz) {
         if (clazz.isAnnotationPresent(ControllerException.class)) {
             log.debug("发现@ControllerAdvice类: {}", clazz.getName());
@@ -235,16 +203,14 @@ public class GlobalExceptionHandler {
             response.setStatus(HttpServletResponse.SC_OK);
         }
         
+        byte[] body;
         try {
-            String jsonResponse = JsonUtils.toJson(result);
-            log.debug("写入响应: 长度={}", jsonResponse.length());
-            response.getWriter().write(jsonResponse);
-            response.getWriter().flush();
+            body = JsonResponseWriter.toBytes(result);
         } catch (Exception e) {
             log.error("序列化响应失败", e);
-            response.getWriter().write("{\"code\":500,\"msg\":\"序列化响应失败\"}");
-            response.getWriter().flush();
+            body = SERIALIZATION_FAILED_BODY;
         }
+        JsonResponseWriter.writeBytes(response, body);
     }
     
     /**
@@ -1,30 +1,44 @@
 package site.arookieofc.processor.web;
 
-import lombok.AllArgsConstructor;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectReader;
 import lombok.extern.slf4j.Slf4j;
+import site.arookieofc.annotation.config.Config;
 import site.arookieofc.annotation.web.*;
 import site.arookieofc.pojo.dto.Result;
+import site.arookieofc.processor.config.ConfigProcessor;
+import site.arookieofc.processor.ioc.ApplicationContextHolder;
 import site.arookieofc.utils.JsonUtils;
 import jakarta.servlet.http.HttpServlet;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
-import java.io.BufferedReader;
 import java.io.IOException;
+import java.io.InputStream;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
 import java.lang.reflect.Method;
 import java.lang.reflect.Parameter;
-import java.util.HashMap;
-import java.util.Map;
+import java.lang.reflect.UndeclaredThrowableException;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.function.Function;
+import java.util.stream.Stream;
 import reactor.core.publisher.Flux;
-import java.io.PrintWriter;
 
 @Slf4j
 public class HttpMappingProcessor extends HttpServlet {
-    private static final Map<String, MethodInfo> getMappings = new HashMap<>();
-    private static final Map<String, MethodInfo> postMappings = new HashMap<>();
-    private static final Map<String, MethodInfo> putMappings = new HashMap<>();
-    private static final Map<String, MethodInfo> deleteMappings = new HashMap<>();
+    private static final RouteTrie<MethodInfo> getMappings = new RouteTrie<>();
+    private static final RouteTrie<MethodInfo> postMappings = new RouteTrie<>();
+    private static final RouteTrie<MethodInfo> putMappings = new RouteTrie<>();
+    private static final RouteTrie<MethodInfo> deleteMappings = new RouteTrie<>();
+
+    private static final byte[] NOT_FOUND_BODY = "{\"code\":404,\"msg\":\"404 Not Found\"}".getBytes(StandardCharsets.UTF_8);
+
+    @Config(value = "web.max-body-size", defaultValue = "10485760")
+    private static long maxBodySize;
 
     static {
+        ConfigProcessor.injectStaticFields(HttpMappingProcessor.class);
         scanAndRegisterMappings();
     }
 
@@ -53,7 +67,7 @@ public class HttpMappingProcessor extends HttpServlet {
     }
 
     @SuppressWarnings("unchecked")
-    private void handleRequest(HttpServletRequest req, HttpServletResponse resp, Map<String, MethodInfo> mappings) throws IOException {
+    private void handleRequest(HttpServletRequest req, HttpServletResponse resp, RouteTrie<MethodInfo> mappings) throws IOException {
         String path = req.getRequestURI();
         String contextPath = req.getContextPath();
         if (contextPath != null && !contextPath.isEmpty()) {
@@ -62,25 +76,19 @@ public class HttpMappingProcessor extends HttpServlet {
         
         log.debug("处理请求路径: {}", path);
         
-        MethodInfo methodInfo = mappings.get(path);
-        if (methodInfo == null) {
-            methodInfo = findMethodWithPathVariables(path, mappings);
-            if (methodInfo != null) {
-                log.debug("找到带路径变量的处理方法: {}.{}", 
-                        methodInfo.controllerClass.getSimpleName(), 
-                        methodInfo.method.getName());
-            }
-        } else {
-            log.debug("找到精确匹配的处理方法: {}.{}", 
-                    methodInfo.controllerClass.getSimpleName(), 
-                    methodInfo.method.getName());
+        RouteTrie.Match<MethodInfo> match = mappings.match(path);
+        MethodInfo methodInfo = match != null ? match.handler() : null;
+        if (methodInfo != null) {
+            log.debug("找到处理方法: {}.{}, 路由: {}",
+                    methodInfo.controllerClass.getSimpleName(),
+                    methodInfo.method.getName(),
+                    match.route().pattern());
         }
     
         if (methodInfo != null) {
             try {
                 long startTime = System.currentTimeMillis();
                 
-                Object controller = site.arookieofc.processor.ioc.ApplicationContextHolder.getBean(methodInfo.controllerClass);
                 resp.setHeader("Access-Control-Allow-Origin", "*");
                 resp.setHeader("Access-Control-Allow-Methods", "GET, POST, PUT, DELETE, OPTIONS");
                 resp.setHeader("Access-Control-Allow-Headers", "Content-Type, Authorization");
@@ -95,10 +103,10 @@ public class HttpMappingProcessor extends HttpServlet {
                 }
     
                 log.debug("构建方法参数: {}.{}", methodInfo.controllerClass.getSimpleName(), methodInfo.method.getName());
-                Object[] args = buildMethodArguments(methodInfo.method, req, resp, path);
+                Object[] args = methodInfo.resolveArguments(req, resp, match);
 
                 log.debug("调用控制器方法: {}.{}", methodInfo.controllerClass.getSimpleName(), methodInfo.method.getName());
-                Object result = methodInfo.method.invoke(controller, args);
+                Object result = methodInfo.invoke(args);
                 
                 long executionTime = System.currentTimeMillis() - startTime;
                 log.debug("控制器方法执行完成: {}.{}, 耗时: {}ms", 
@@ -110,10 +118,10 @@ public class HttpMappingProcessor extends HttpServlet {
                 if ((methodInfo.produces.length > 0 && 
                 (methodInfo.produces[0].equals("text/event-stream") || 
                  methodInfo.produces[0].startsWith("text/plain")))) {
-                    // 处理流式响应 - 优化缓冲
+                    // 切换为异步请求，不占用容器线程等待上游
                     if (result instanceof Flux) {
                         log.debug("处理Flux流式响应");
-                        handleFluxResponse(resp, (Flux<String>) result);
+                        SseResponseSubscriber.start(req, resp, (Flux<String>) result);
                         return;
                     }
                 }
@@ -123,23 +131,12 @@ public class HttpMappingProcessor extends HttpServlet {
                     resp.setCharacterEncoding("UTF-8");
                 }
                 
-                if (result != null) {
-                    String jsonResponse;
-                    if (result instanceof String resultStr) {
-                        if (isValidJson(resultStr)) {
-                            jsonResponse = resultStr;
-                        } else {
-                            jsonResponse = JsonUtils.toJson(resultStr);
-                        }
-                    } else {
-                        jsonResponse = JsonUtils.toJson(result);
-                    }
-                    log.debug("写入响应: 长度={}", jsonResponse.length());
-                    resp.getWriter().write(jsonResponse);
-                } else {
-                    log.debug("写入空响应");
-                    resp.getWriter().write("{}");
+                if (result instanceof Stream<?> || (result instanceof Result wrapper && wrapper.getData() instanceof Stream<?>)) {
+                    writeStreamingJson(resp, result);
+                    return;
                 }
+
+                JsonResponseWriter.write(resp, result);
             } catch (Exception e) {
                 log.error("请求处理异常: {}, 路径: {}, 异常: {}", 
                         e.getClass().getSimpleName(), path, e.getMessage());
@@ -155,145 +152,49 @@ public class HttpMappingProcessor extends HttpServlet {
             log.warn("未找到匹配的处理方法: {}", path);
             resp.setStatus(HttpServletResponse.SC_NOT_FOUND);
             resp.setContentType("application/json;charset=UTF-8");
-            try {
-                Result errorResult = Result.error(404, "404 Not Found");
-                resp.getWriter().write(JsonUtils.toJson(errorResult));
-            } catch (Exception e) {
-                log.error("写入404响应失败", e);
-                resp.getWriter().write("{\"code\":404,\"msg\":\"404 Not Found\"}");
-            }
+            JsonResponseWriter.writeBytes(resp, NOT_FOUND_BODY);
         }
     }
     
-    private void handleFluxResponse(HttpServletResponse resp, Flux<String> flux) {
-        try {
-            // 设置为Server-Sent Events格式，浏览器对此有更好的流式支持
-            resp.setContentType("text/event-stream;charset=UTF-8");
-            resp.setCharacterEncoding("UTF-8");
-            resp.setHeader("Cache-Control", "no-cache");
-            resp.setHeader("Connection", "keep-alive");
-            
-            // 完全禁用缓冲
-            resp.setBufferSize(0);
-            resp.flushBuffer();
-            
-            PrintWriter writer = resp.getWriter();
-            
-            try {
-                java.util.concurrent.CountDownLatch latch = new java.util.concurrent.CountDownLatch(1);
-                java.util.concurrent.atomic.AtomicReference<Exception> errorRef = new java.util.concurrent.atomic.AtomicReference<>();
-
-                // 发送初始连接确认
-                writer.write("data: \n\n");
-                writer.flush();
-                
-                flux.subscribe(
-                    data -> {
-                        try {
-                            synchronized (writer) {
-                                // 使用SSE格式
-                                writer.write("data: " + data + "\n\n");
-                                writer.flush();
-                            }
-                            log.trace("流式写入数据: 长度={}", data.length());
-                        } catch (Exception e) {
-                            log.error("写入token失败: ", e);
-                            errorRef.set(e);
-                            latch.countDown();
-                        }
-                    },
-                    error -> {
-                        log.error("流式处理发生错误: ", error);
-                        try {
-                            synchronized (writer) {
-                                writer.write("data: [错误: " + error.getMessage() + "]\n\n");
-                                writer.flush();
-                            }
-                        } catch (Exception e) {
-                            log.error("写入错误信息失败: ", e);
-                        }
-                        errorRef.set((Exception) error);
-                        latch.countDown();
-                    },
-                    () -> {
-                        log.debug("token流结束");
-                        try {
-                            synchronized (writer) {
-                                writer.write("data: [DONE]\n\n");
-                                writer.flush();
-                            }
-                        } catch (Exception e) {
-                            log.debug("写入结束标记失败: ", e);
-                        }
-                        latch.countDown();
-                    }
-                );
-                
-                boolean completed = latch.await(60, java.util.concurrent.TimeUnit.SECONDS);
-                if (!completed) {
-                    log.warn("流式响应超时");
-                }
-                
-                Exception error = errorRef.get();
-                if (error != null && !(error instanceof java.io.IOException)) {
-                    throw error;
-                }
-                
-            } catch (Exception e) {
-                log.error("处理流式响应时发生异常: ", e);
-                try {
-                    writer.write("data: [服务器错误]\n\n");
-                    writer.flush();
-                } catch (Exception ex) {
-                    log.error("写入异常信息失败: ", ex);
-                }
-            } finally {
-                try {
-                    writer.close();
-                } catch (Exception e) {
-                    log.debug("关闭Writer时发生异常: ", e);
+    /**
+     * 将Stream逐条写为JSON数组（或Result包装的data字段），不在内存中构建完整响应；
+     * 写出完成或失败后关闭Stream以释放底层游标
+     */
+    private void writeStreamingJson(HttpServletResponse resp, Object result) throws IOException {
+        Result wrapper = result instanceof Result r ? r : null;
+        Stream<?> stream = (Stream<?>) (wrapper != null ? wrapper.getData() : result);
+        long count = 0;
+        try (stream) {
+            JsonGenerator generator = JsonUtils.getObjectMapper().createGenerator(resp.getOutputStream());
+            if (wrapper != null) {
+                generator.writeStartObject();
+                generator.writeNumberField("code", wrapper.getCode());
+                if (wrapper.getMsg() != null) {
+                    generator.writeStringField("msg", wrapper.getMsg());
                 }
+                generator.writeFieldName("data");
             }
-        } catch (Exception e) {
-            log.error("处理Flux响应失败", e);
-        }
-    }
-
-    private boolean isValidJson(String jsonString) {
-        try {
-            JsonUtils.getObjectMapper().readTree(jsonString);
-            return true;
-        } catch (Exception e) {
-            return false;
-        }
-    }
-
-    private MethodInfo findMethodWithPathVariables(String requestPath, Map<String, MethodInfo> mappings) {
-        for (Map.Entry<String, MethodInfo> entry : mappings.entrySet()) {
-            String mappingPath = entry.getKey();
-            if (pathMatches(requestPath, mappingPath)) {
-                return entry.getValue();
+            generator.writeStartArray();
+            Iterator<?> iterator = stream.iterator();
+            while (iterator.hasNext()) {
+                generator.writeObject(iterator.next());
+                count++;
             }
-        }
-        return null;
-    }
-
-    private boolean pathMatches(String requestPath, String mappingPath) {
-        // 简单的路径变量匹配逻辑
-        String[] requestSegments = requestPath.split("/");
-        String[] mappingSegments = mappingPath.split("/");
-
-        if (requestSegments.length != mappingSegments.length) {
-            return false;
-        }
-
-        for (int i = 0; i < requestSegments.length; i++) {
-            String mappingSegment = mappingSegments[i];
-            if (!mappingSegment.startsWith("{") && !mappingSegment.equals(requestSegments[i])) {
-                return false;
+            generator.writeEndArray();
+            if (wrapper != null) {
+                generator.writeEndObject();
             }
+            generator.close();
+            log.debug("流式写入响应完成: 元素数={}", count);
+        } catch (IOException | RuntimeException e) {
+            if (resp.isCommitted()) {
+                // 响应头已发出，无法再改写为错误响应
+                log.error("流式写入响应中断: 已写出元素数={}", count, e);
+                return;
+            }
+            resp.reset();
+            throw e;
         }
-        return true;
     }
 
     private static void scanAndRegisterMappings() {
@@ -333,37 +234,191 @@ public class HttpMappingProcessor extends HttpServlet {
                 fullPath = "/" + fullPath;
             }
             
-            MethodInfo methodInfo = new MethodInfo(method, controllerClass, produces, consumes);
+            MethodInfo methodInfo = new MethodInfo(method, controllerClass, fullPath, produces, consumes);
             
             switch (requestMethod) {
                 case GET:
-                    getMappings.put(fullPath, methodInfo);
+                    addRoute(getMappings, fullPath, methodInfo);
                     break;
                 case POST:
-                    postMappings.put(fullPath, methodInfo);
+                    addRoute(postMappings, fullPath, methodInfo);
                     break;
                 case PUT:
-                    putMappings.put(fullPath, methodInfo);
+                    addRoute(putMappings, fullPath, methodInfo);
                     break;
                 case DELETE:
-                    deleteMappings.put(fullPath, methodInfo);
+                    addRoute(deleteMappings, fullPath, methodInfo);
                     break;
             }
         }
     }
 
-    // MethodInfo类定义
-    @AllArgsConstructor
+    private static void addRoute(RouteTrie<MethodInfo> mappings, String path, MethodInfo methodInfo) {
+        MethodInfo previous = mappings.insert(path, methodInfo);
+        if (previous != null) {
+            log.warn("路由 {} 重复注册: {}.{} 覆盖 {}.{}", path,
+                    methodInfo.controllerClass.getSimpleName(), methodInfo.method.getName(),
+                    previous.controllerClass.getSimpleName(), previous.method.getName());
+        }
+    }
+
+    /**
+     * 已注册的处理方法
+     * 参数解析器、类型转换和调用句柄均在注册时生成，请求路径上不再做反射查找
+     */
     private static class MethodInfo {
         final Method method;
         final Class<?> controllerClass;
         final String[] produces;
         final String[] consumes;
+        private final ArgumentResolver[] resolvers;
+        private final MethodHandle invoker;
+        // 注册时容器可能尚未完成初始化，首次请求时再取控制器实例
+        private volatile Object controller;
+
+        MethodInfo(Method method, Class<?> controllerClass, String path, String[] produces, String[] consumes) {
+            this.method = method;
+            this.controllerClass = controllerClass;
+            this.produces = produces;
+            this.consumes = consumes;
+            this.resolvers = buildResolvers(method, RouteTrie.variableNames(path));
+            this.invoker = buildInvoker(method);
+        }
+
+        Object[] resolveArguments(HttpServletRequest req, HttpServletResponse resp, RouteTrie.Match<?> match) throws Exception {
+            Object[] args = new Object[resolvers.length];
+            for (int i = 0; i < resolvers.length; i++) {
+                args[i] = resolvers[i].resolve(req, resp, match);
+            }
+            return args;
+        }
+
+        Object invoke(Object[] args) throws Exception {
+            Object target = controller;
+            if (target == null) {
+                target = ApplicationContextHolder.getBean(controllerClass);
+                controller = target;
+            }
+            try {
+                return (Object) invoker.invokeExact(target, args);
+            } catch (Exception | Error e) {
+                throw e;
+            } catch (Throwable e) {
+                throw new UndeclaredThrowableException(e);
+            }
+        }
+    }
+
+    /**
+     * 生成(Object, Object[])Object形式的调用句柄，控制器方法抛出的异常原样向上传递
+     */
+    private static MethodHandle buildInvoker(Method method) {
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.privateLookupIn(method.getDeclaringClass(), MethodHandles.lookup());
+            MethodHandle handle = lookup.unreflect(method);
+            return handle.asType(handle.type().generic())
+                    .asSpreader(Object[].class, method.getParameterCount());
+        } catch (IllegalAccessException e) {
+            throw new RuntimeException("Cannot access controller method: " + method, e);
+        }
+    }
+
+    private static ArgumentResolver[] buildResolvers(Method method, String[] variableNames) {
+        Parameter[] parameters = method.getParameters();
+        ArgumentResolver[] resolvers = new ArgumentResolver[parameters.length];
+        for (int i = 0; i < parameters.length; i++) {
+            resolvers[i] = buildResolver(parameters[i], variableNames);
+        }
+        return resolvers;
+    }
+
+    private static ArgumentResolver buildResolver(Parameter parameter, String[] variableNames) {
+        Class<?> paramType = parameter.getType();
+
+        if (paramType == HttpServletResponse.class) {
+            return (req, resp, match) -> resp;
+        }
+        if (paramType == HttpServletRequest.class) {
+            return (req, resp, match) -> req;
+        }
+
+        RequestParam requestParam = parameter.getAnnotation(RequestParam.class);
+        if (requestParam != null) {
+            String name = requestParam.value();
+            boolean required = requestParam.required();
+            String defaultValue = requestParam.defaultValue().isEmpty() ? null : requestParam.defaultValue();
+            Function<String, Object> converter = converterFor(paramType);
+            return (req, resp, match) -> {
+                String paramValue = req.getParameter(name);
+                if (paramValue == null && required) {
+                    throw new IllegalArgumentException("Required parameter '" + name + "' is missing");
+                }
+                return converter.apply(paramValue != null ? paramValue : defaultValue);
+            };
+        }
+
+        PathVariable pathVariable = parameter.getAnnotation(PathVariable.class);
+        if (pathVariable != null) {
+            int index = pathVariableIndex(parameter, pathVariable.value(), variableNames);
+            if (index < 0) {
+                log.warn("路径变量 {} 在路由中不存在，参数将为null", parameter.getName());
+                return (req, resp, match) -> null;
+            }
+            Function<String, Object> converter = converterFor(paramType);
+            return (req, resp, match) -> converter.apply(match.values()[index]);
+        }
+
+        if (parameter.isAnnotationPresent(RequestBody.class)) {
+            ObjectReader reader = JsonUtils.readerFor(parameter.getParameterizedType());
+            return (req, resp, match) -> readRequestBody(req, reader);
+        }
+
+        return (req, resp, match) -> null;
+    }
+
+    /**
+     * 按名称定位路径变量下标；注解未指定名称时使用参数名，编译时未保留参数名且路由只有一个变量时取该变量
+     */
+    private static int pathVariableIndex(Parameter parameter, String variableName, String[] variableNames) {
+        if (variableName.isEmpty() && parameter.isNamePresent()) {
+            variableName = parameter.getName();
+        }
+        for (int i = 0; i < variableNames.length; i++) {
+            if (variableNames[i].equals(variableName)) {
+                return i;
+            }
+        }
+        return variableNames.length == 1 ? 0 : -1;
+    }
+
+    /**
+     * 按目标类型选择字符串转换函数，缺失的值保持为null，基本类型参数缺失时报参数错误
+     */
+    private static Function<String, Object> converterFor(Class<?> targetType) {
+        Function<String, Object> converter;
+        if (targetType == int.class || targetType == Integer.class) {
+            converter = Integer::parseInt;
+        } else if (targetType == long.class || targetType == Long.class) {
+            converter = Long::parseLong;
+        } else if (targetType == boolean.class || targetType == Boolean.class) {
+            converter = Boolean::parseBoolean;
+        } else {
+            return value -> value;
+        }
+        if (targetType.isPrimitive()) {
+            return value -> {
+                if (value == null) {
+                    throw new IllegalArgumentException("Missing value for " + targetType.getName() + " parameter");
+                }
+                return converter.apply(value);
+            };
+        }
+        return value -> value == null ? null : converter.apply(value);
     }
 
     private static void registerMethodMapping(Method method, Class<?> controllerClass, String basePath,
                                             Class<? extends java.lang.annotation.Annotation> annotationClass,
-                                            Map<String, MethodInfo> mappings) {
+                                            RouteTrie<MethodInfo> mappings) {
         if (method.isAnnotationPresent(annotationClass)) {
             try {
                 java.lang.annotation.Annotation annotation = method.getAnnotation(annotationClass);
@@ -386,94 +441,30 @@ public class HttpMappingProcessor extends HttpServlet {
                     fullPath = "/" + fullPath;
                 }
                 
-                mappings.put(fullPath, new MethodInfo(method, controllerClass, produces, consumes));
+                addRoute(mappings, fullPath, new MethodInfo(method, controllerClass, fullPath, produces, consumes));
             } catch (Exception e) {
                 log.error(e.getMessage(), e);
             }
         }
     }
 
-    private Object[] buildMethodArguments(Method method, HttpServletRequest req, HttpServletResponse resp, String requestPath) throws Exception {
-        Parameter[] parameters = method.getParameters();
-        Object[] args = new Object[parameters.length];
-        
-        for (int i = 0; i < parameters.length; i++) {
-            Parameter parameter = parameters[i];
-            Class<?> paramType = parameter.getType();
-
-            
-            // 检查是否是HttpServletResponse参数
-            if (paramType == HttpServletResponse.class) {
-                args[i] = resp;
-                continue;
-            }
-            
-            // 检查是否是HttpServletRequest参数
-            if (paramType == HttpServletRequest.class) {
-                args[i] = req;
-                continue;
-            }
-            
-            RequestParam requestParam = parameter.getAnnotation(RequestParam.class);
-            if (requestParam != null) {
-                String paramValue = req.getParameter(requestParam.value());
-                if (paramValue == null && requestParam.required()) {
-                    throw new IllegalArgumentException("Required parameter '" + requestParam.value() + "' is missing");
-                }
-                if (paramValue == null && !requestParam.defaultValue().isEmpty()) {
-                    paramValue = requestParam.defaultValue();
-                }
-                args[i] = convertStringToType(paramValue, paramType);
-                continue;
-            }
-
-            PathVariable pathVariable = parameter.getAnnotation(PathVariable.class);
-            if (pathVariable != null) {
-                String variableValue = extractPathVariable(requestPath, pathVariable.value());
-                args[i] = convertStringToType(variableValue, paramType);
-                continue;
-            }
-
-            RequestBody requestBody = parameter.getAnnotation(RequestBody.class);
-            if (requestBody != null) {
-                String jsonBody = getRequestBody(req);
-                args[i] = JsonUtils.fromJson(jsonBody, paramType);
-                continue;
-            }
-            
-            args[i] = null;
+    /**
+     * 从请求输入流直接反序列化请求体；声明的Content-Length超限时直接拒绝，
+     * 未声明长度的请求按已读取字节数限制
+     */
+    private static Object readRequestBody(HttpServletRequest req, ObjectReader reader) throws Exception {
+        long contentLength = req.getContentLengthLong();
+        if (maxBodySize > 0 && contentLength > maxBodySize) {
+            throw new IllegalArgumentException("请求体大小 " + contentLength + " 字节超过上限 " + maxBodySize + " 字节");
         }
-
-        return args;
-    }
-
-    private Object convertStringToType(String value, Class<?> targetType) {
-        if (value == null) return null;
-
-        if (targetType == String.class) {
-            return value;
-        } else if (targetType == int.class || targetType == Integer.class) {
-            return Integer.parseInt(value);
-        } else if (targetType == long.class || targetType == Long.class) {
-            return Long.parseLong(value);
-        } else if (targetType == boolean.class || targetType == Boolean.class) {
-            return Boolean.parseBoolean(value);
+        InputStream in = req.getInputStream();
+        if (maxBodySize > 0 && contentLength < 0) {
+            in = new LimitedInputStream(in, maxBodySize);
         }
-        return value;
-    }
-
-    private String extractPathVariable(String requestPath, String variableName) {
-        String[] pathParts = requestPath.split("/");
-        return pathParts[pathParts.length - 1];
-    }
-
-    private String getRequestBody(HttpServletRequest req) throws IOException {
-        StringBuilder sb = new StringBuilder();
-        String line;
-        BufferedReader reader = req.getReader();
-        while ((line = reader.readLine()) != null) {
-            sb.append(line);
+        try {
+            return reader.readValue(in);
+        } catch (LimitedInputStream.LimitExceededException e) {
+            throw new IllegalArgumentException("请求体超过上限 " + maxBodySize + " 字节", e);
         }
-        return sb.toString();
     }
 }
\ No newline at end of file
@@ -0,0 +1,41 @@
+package site.arookieofc.processor.web;
+
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import site.arookieofc.pojo.dto.RawJson;
+import site.arookieofc.utils.JsonUtils;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * JSON响应写出工具
+ * 按返回值的运行时类型取缓存的ObjectWriter序列化为UTF-8字节，设置Content-Length后一次写入输出流
+ */
+@Slf4j
+class JsonResponseWriter {
+
+    private static final byte[] EMPTY_OBJECT = "{}".getBytes(StandardCharsets.UTF_8);
+
+    static void write(HttpServletResponse resp, Object value) throws IOException {
+        writeBytes(resp, toBytes(value));
+    }
+
+    static byte[] toBytes(Object value) throws IOException {
+        if (value == null) {
+            return EMPTY_OBJECT;
+        }
+        if (value instanceof RawJson raw) {
+            return raw.getJson().getBytes(StandardCharsets.UTF_8);
+        }
+        return JsonUtils.writerFor(value.getClass()).writeValueAsBytes(value);
+    }
+
+    static void writeBytes(HttpServletResponse resp, byte[] body) throws IOException {
+        log.debug("写入响应: 字节数={}", body.length);
+        resp.setContentLength(body.length);
+        ServletOutputStream out = resp.getOutputStream();
+        out.write(body);
+        out.flush();
+    }
+}
@@ -0,0 +1,173 @@
+package site.arookieofc.processor.web;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 路由前缀树
+ * 每层对应一个路径段，字面量段优先于{变量}段匹配，失败时回溯；
+ * 匹配过程按下标扫描请求路径，不做split或正则；没有变量的路由返回注册时创建的匹配结果，
+ * 有变量的路由只在匹配成功后分配一个结果和捕获的变量值
+ */
+public class RouteTrie<T> {
+
+    private static final String[] EMPTY = new String[0];
+
+    private final Node<T> root = new Node<>();
+
+    /**
+     * 注册路由，路径形如/student/info/{id}；重复注册同一路径时返回被覆盖的处理器
+     */
+    public T insert(String path, T handler) {
+        Node<T> node = root;
+        for (String segment : path.split("/")) {
+            if (segment.isEmpty()) {
+                continue;
+            }
+            if (isVariable(segment)) {
+                if (node.variableChild == null) {
+                    node.variableChild = new Node<>();
+                }
+                node = node.variableChild;
+            } else {
+                node = node.literalChild(segment);
+            }
+        }
+        String[] variableNames = variableNames(path);
+        T previous = node.route != null ? node.route.handler : null;
+        node.route = new Route<>(path, variableNames, handler);
+        node.staticMatch = variableNames.length == 0 ? new Match<>(node.route, EMPTY) : null;
+        return previous;
+    }
+
+    /**
+     * 按出现顺序解析路径中的变量名，下标与Match.values一致
+     */
+    public static String[] variableNames(String path) {
+        List<String> variableNames = new ArrayList<>();
+        for (String segment : path.split("/")) {
+            if (isVariable(segment)) {
+                variableNames.add(segment.substring(1, segment.length() - 1));
+            }
+        }
+        return variableNames.toArray(EMPTY);
+    }
+
+    private static boolean isVariable(String segment) {
+        return segment.startsWith("{") && segment.endsWith("}");
+    }
+
+    /**
+     * 匹配请求路径，未找到时返回null
+     */
+    public Match<T> match(String path) {
+        return match(root, path, skipSlashes(path, 0), 0);
+    }
+
+    /**
+     * 匹配成功后沿回溯路径由内向外填入变量值，失败的分支不分配任何对象
+     */
+    private Match<T> match(Node<T> node, String path, int start, int depth) {
+        if (start >= path.length()) {
+            if (node.route == null) {
+                return null;
+            }
+            return node.staticMatch != null
+                    ? node.staticMatch
+                    : new Match<>(node.route, new String[node.route.variableNames().length]);
+        }
+        int end = path.indexOf('/', start);
+        if (end < 0) {
+            end = path.length();
+        }
+        int next = skipSlashes(path, end);
+
+        Node<T> literal = node.findLiteral(path, start, end - start);
+        if (literal != null) {
+            Match<T> match = match(literal, path, next, depth);
+            if (match != null) {
+                return match;
+            }
+        }
+        if (node.variableChild != null) {
+            Match<T> match = match(node.variableChild, path, next, depth + 1);
+            if (match != null) {
+                match.values()[depth] = path.substring(start, end);
+                return match;
+            }
+        }
+        return null;
+    }
+
+    private static int skipSlashes(String path, int index) {
+        while (index < path.length() && path.charAt(index) == '/') {
+            index++;
+        }
+        return index;
+    }
+
+    private static final class Node<T> {
+        private String[] literals = EMPTY;
+        private Node<T>[] literalChildren = newArray(0);
+        private Node<T> variableChild;
+        private Route<T> route;
+        // 没有变量的路由共用的匹配结果
+        private Match<T> staticMatch;
+
+        private Node<T> literalChild(String segment) {
+            for (int i = 0; i < literals.length; i++) {
+                if (literals[i].equals(segment)) {
+                    return literalChildren[i];
+                }
+            }
+            Node<T> child = new Node<>();
+            literals = Arrays.copyOf(literals, literals.length + 1);
+            literals[literals.length - 1] = segment;
+            literalChildren = Arrays.copyOf(literalChildren, literalChildren.length + 1);
+            literalChildren[literalChildren.length - 1] = child;
+            return child;
+        }
+
+        private Node<T> findLiteral(String path, int start, int length) {
+            for (int i = 0; i < literals.length; i++) {
+                String literal = literals[i];
+                if (literal.length() == length && path.regionMatches(start, literal, 0, length)) {
+                    return literalChildren[i];
+                }
+            }
+            return null;
+        }
+
+        @SuppressWarnings("unchecked")
+        private static <T> Node<T>[] newArray(int size) {
+            return (Node<T>[]) new Node[size];
+        }
+    }
+
+    /**
+     * 已注册的路由：原始路径、按出现顺序的变量名和处理器
+     */
+    public record Route<T>(String pattern, String[] variableNames, T handler) {
+    }
+
+    /**
+     * 匹配结果，values[i]对应route.variableNames[i]
+     */
+    public record Match<T>(Route<T> route, String[] values) {
+
+        public T handler() {
+            return route.handler();
+        }
+
+        public String variable(String name) {
+            String[] names = route.variableNames();
+            for (int i = 0; i < names.length; i++) {
+                if (names[i].equals(name)) {
+                    return values[i];
+                }
+            }
+            return null;
+        }
+    }
+}
@@ -0,0 +1,203 @@
+package site.arookieofc.processor.web;
+
+import jakarta.servlet.AsyncContext;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+import site.arookieofc.annotation.config.Config;
+import site.arookieofc.processor.config.ConfigProcessor;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 基于Servlet异步的SSE响应写出器
+ * 请求线程在startAsync后立即返回；输出流可写时才向上游request(1)，
+ * 上游推送速度超过客户端读取速度时由上游的缓冲承接。
+ * 客户端断开、超时或写出失败时取消上游订阅
+ */
+@Slf4j
+class SseResponseSubscriber implements Subscriber<String> {
+
+    static {
+        ConfigProcessor.injectStaticFields(SseResponseSubscriber.class);
+    }
+
+    @Config(value = "web.sse-timeout", defaultValue = "60000")
+    private static long timeout;
+
+    private static final byte[] PREFACE = "data: \n\n".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] DONE = "data: [DONE]\n\n".getBytes(StandardCharsets.UTF_8);
+
+    private final AsyncContext asyncContext;
+    private final ServletOutputStream out;
+    private final Queue<byte[]> pending = new ConcurrentLinkedQueue<>();
+    // 串行化drain：同一时刻只有一个线程写输出流
+    private final AtomicInteger wip = new AtomicInteger();
+    private final AtomicBoolean closed = new AtomicBoolean();
+    private volatile Subscription subscription;
+    private volatile boolean demanded;
+    private volatile boolean terminated;
+
+    private SseResponseSubscriber(AsyncContext asyncContext, ServletOutputStream out) {
+        this.asyncContext = asyncContext;
+        this.out = out;
+    }
+
+    /**
+     * 切换到异步模式并订阅上游，调用后请求线程即可返回容器
+     */
+    static void start(HttpServletRequest req, HttpServletResponse resp, Publisher<String> publisher) throws IOException {
+        resp.setContentType("text/event-stream;charset=UTF-8");
+        resp.setCharacterEncoding("UTF-8");
+        resp.setHeader("Cache-Control", "no-cache");
+        resp.setHeader("Connection", "keep-alive");
+
+        AsyncContext asyncContext = req.startAsync(req, resp);
+        asyncContext.setTimeout(timeout);
+        SseResponseSubscriber subscriber = new SseResponseSubscriber(asyncContext, resp.getOutputStream());
+        subscriber.pending.add(PREFACE);
+        ServletCallbacks callbacks = subscriber.new ServletCallbacks();
+        asyncContext.addListener(callbacks);
+        subscriber.out.setWriteListener(callbacks);
+        publisher.subscribe(subscriber);
+    }
+
+    @Override
+    public void onSubscribe(Subscription subscription) {
+        this.subscription = subscription;
+        drain();
+    }
+
+    @Override
+    public void onNext(String data) {
+        demanded = false;
+        pending.add(("data: " + data + "\n\n").getBytes(StandardCharsets.UTF_8));
+        log.trace("流式写入数据: 长度={}", data.length());
+        drain();
+    }
+
+    @Override
+    public void onError(Throwable error) {
+        log.error("流式处理发生错误: ", error);
+        pending.add(("data: [错误: " + error.getMessage() + "]\n\n").getBytes(StandardCharsets.UTF_8));
+        terminated = true;
+        drain();
+    }
+
+    @Override
+    public void onComplete() {
+        log.debug("token流结束");
+        pending.add(DONE);
+        terminated = true;
+        drain();
+    }
+
+    private void drain() {
+        if (wip.getAndIncrement() != 0) {
+            return;
+        }
+        int missed = 1;
+        do {
+            try {
+                while (!closed.get() && out.isReady()) {
+                    byte[] chunk = pending.poll();
+                    if (chunk != null) {
+                        out.write(chunk);
+                        if (!out.isReady()) {
+                            // 写缓冲已满，等待onWritePossible
+                            break;
+                        }
+                        out.flush();
+                        continue;
+                    }
+                    if (terminated) {
+                        close();
+                    } else if (!demanded && subscription != null) {
+                        demanded = true;
+                        subscription.request(1);
+                    }
+                    break;
+                }
+            } catch (IOException | IllegalStateException e) {
+                log.debug("写出SSE数据失败，客户端可能已断开: {}", e.getMessage());
+                cancel();
+            }
+            missed = wip.addAndGet(-missed);
+        } while (missed != 0);
+    }
+
+    private void close() {
+        if (closed.compareAndSet(false, true)) {
+            try {
+                asyncContext.complete();
+            } catch (IllegalStateException e) {
+                log.debug("异步上下文已结束: {}", e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * 取消上游并结束异步请求
+     */
+    private void cancel() {
+        Subscription current = subscription;
+        if (!terminated && current != null) {
+            current.cancel();
+        }
+        terminated = true;
+        pending.clear();
+        close();
+    }
+
+    /**
+     * 容器回调：输出流可写时继续写出，连接断开、超时或异常时取消上游
+     */
+    private class ServletCallbacks implements WriteListener, AsyncListener {
+
+        @Override
+        public void onWritePossible() {
+            drain();
+        }
+
+        @Override
+        public void onError(Throwable error) {
+            log.debug("SSE写出失败，客户端可能已断开: {}", error.getMessage());
+            cancel();
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            log.debug("SSE连接异常断开: {}", event.getThrowable() != null ? event.getThrowable().getMessage() : "");
+            cancel();
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            log.warn("流式响应超时: {}ms", timeout);
+            cancel();
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            if (!terminated) {
+                log.debug("SSE连接已关闭，取消上游");
+                cancel();
+            }
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+        }
+    }
+}
@@ -23,6 +23,9 @@ public class EmbeddedTomcatServer {
         String webappDirLocation = "src/main/webapp";
         File webappDir = new File(webappDirLocation);
         tomcat.addWebapp("", webappDir.getAbsolutePath());
+        TomcatSettings.apply(tomcat.getConnector());
+        ServerThreads.configure(tomcat.getConnector(), "Web");
+        TomcatSettings.report(port);
         tomcat.start();
         tomcat.getConnector().getLocalPort();
         // 移除阻塞调用 tomcat.getServer().await();
@@ -116,6 +116,7 @@ public class McpServer {
         
         // 设置UTF-8编码
         tomcat.getConnector().setURIEncoding("UTF-8");
+        ServerThreads.configure(tomcat.getConnector(), "MCP");
         
         Context context = tomcat.addContext("", baseDir);
         Tomcat.addServlet(context, "transportProvider", transport);
@@ -0,0 +1,56 @@
+package site.arookieofc.server;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.catalina.connector.Connector;
+import site.arookieofc.annotation.config.Config;
+
+/**
+ * 连接器线程模式
+ * server.threads为virtual且运行在Java 21及以上时，连接器改用虚拟线程处理请求；
+ * 低版本JDK不支持虚拟线程，自动退回平台线程池
+ */
+@Slf4j
+public class ServerThreads {
+
+    private static final int VIRTUAL_THREADS_MIN_VERSION = 21;
+
+    @Config(value = "server.threads", defaultValue = "platform")
+    private static String mode;
+
+    private static volatile Boolean virtual;
+
+    public static boolean isVirtual() {
+        Boolean enabled = virtual;
+        if (enabled == null) {
+            enabled = resolve();
+            virtual = enabled;
+        }
+        return enabled;
+    }
+
+    private static boolean resolve() {
+        if (!"virtual".equalsIgnoreCase(mode)) {
+            return false;
+        }
+        int feature = Runtime.version().feature();
+        if (feature < VIRTUAL_THREADS_MIN_VERSION) {
+            log.warn("server.threads=virtual需要Java {}+，当前为Java {}，使用平台线程池", VIRTUAL_THREADS_MIN_VERSION, feature);
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * 按配置为连接器选择线程模式，需在Tomcat启动前调用
+     */
+    public static void configure(Connector connector, String name) {
+        if (!isVirtual()) {
+            return;
+        }
+        if (connector.setProperty("useVirtualThreads", "true")) {
+            log.info("{} 连接器使用虚拟线程处理请求", name);
+        } else {
+            log.warn("{} 连接器不支持虚拟线程，使用平台线程池", name);
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package site.arookieofc.server;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.catalina.connector.Connector;
+import org.apache.coyote.http2.Http2Protocol;
+import site.arookieofc.annotation.config.Config;
+
+/**
+ * 主服务器连接器参数
+ * 线程池、连接数、keep-alive、响应压缩与HTTP/2(h2c)均由server.tomcat.*配置，启动时输出生效值
+ */
+@Slf4j
+public class TomcatSettings {
+
+    @Config(value = "server.tomcat.max-threads", defaultValue = "200")
+    private static int maxThreads;
+
+    @Config(value = "server.tomcat.min-spare-threads", defaultValue = "10")
+    private static int minSpareThreads;
+
+    @Config(value = "server.tomcat.accept-count", defaultValue = "100")
+    private static int acceptCount;
+
+    @Config(value = "server.tomcat.max-connections", defaultValue = "8192")
+    private static int maxConnections;
+
+    @Config(value = "server.tomcat.connection-timeout", defaultValue = "20000")
+    private static int connectionTimeout;
+
+    @Config(value = "server.tomcat.keep-alive-timeout", defaultValue = "20000")
+    private static int keepAliveTimeout;
+
+    @Config(value = "server.tomcat.max-keep-alive-requests", defaultValue = "100")
+    private static int maxKeepAliveRequests;
+
+    @Config(value = "server.tomcat.compression.enabled", defaultValue = "true")
+    private static boolean compression;
+
+    @Config(value = "server.tomcat.compression.min-size", defaultValue = "2048")
+    private static int compressionMinSize;
+
+    @Config(value = "server.tomcat.compression.mime-types", defaultValue = "application/json,text/html,text/plain,text/css,application/javascript")
+    private static String compressibleMimeTypes;
+
+    @Config(value = "server.tomcat.http2", defaultValue = "true")
+    private static boolean http2;
+
+    /**
+     * 应用到连接器，需在Tomcat启动前调用
+     */
+    public static void apply(Connector connector) {
+        connector.setProperty("maxThreads", String.valueOf(maxThreads));
+        connector.setProperty("minSpareThreads", String.valueOf(minSpareThreads));
+        connector.setProperty("acceptCount", String.valueOf(acceptCount));
+        connector.setProperty("maxConnections", String.valueOf(maxConnections));
+        connector.setProperty("connectionTimeout", String.valueOf(connectionTimeout));
+        connector.setProperty("keepAliveTimeout", String.valueOf(keepAliveTimeout));
+        connector.setProperty("maxKeepAliveRequests", String.valueOf(maxKeepAliveRequests));
+        if (compression) {
+            // text/event-stream不在列表中，SSE不会被压缩缓冲
+            connector.setProperty("compression", "on");
+            connector.setProperty("compressionMinSize", String.valueOf(compressionMinSize));
+            connector.setProperty("compressibleMimeType", compressibleMimeTypes);
+        } else {
+            connector.setProperty("compression", "off");
+        }
+        if (http2) {
+            // 明文端口上通过Upgrade或prior knowledge协商h2c
+            connector.addUpgradeProtocol(new Http2Protocol());
+        }
+    }
+
+    public static void report(int port) {
+        log.info("连接器配置: 端口={}, 线程={}, maxThreads={}, minSpareThreads={}, acceptCount={}, maxConnections={}",
+                port, ServerThreads.isVirtual() ? "virtual" : "platform",
+                maxThreads, minSpareThreads, acceptCount, maxConnections);
+        log.info("连接器配置: connectionTimeout={}ms, keepAliveTimeout={}ms, maxKeepAliveRequests={}",
+                connectionTimeout, keepAliveTimeout, maxKeepAliveRequests);
+        log.info("连接器配置: 压缩={}{}, HTTP/2(h2c)={}",
+                compression ? "on" : "off",
+                compression ? " (minSize=" + compressionMinSize + ", mimeTypes=" + compressibleMimeTypes + ")" : "",
+                http2 ? "on" : "off");
+    }
+}
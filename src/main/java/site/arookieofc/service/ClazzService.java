@@ -1,7 +1,9 @@
 package site.arookieofc.service;
 
 import site.arookieofc.pojo.DO.Clazz;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 public interface ClazzService {
 
@@ -9,6 +11,8 @@ public interface ClazzService {
 
     Clazz getClassById(String id);
 
+    List<Clazz> getClassesByIds(Collection<String> ids);
+
     Integer addClass(Clazz clazz);
 
     Boolean updateClass(Clazz clazz);
@@ -19,6 +23,16 @@ public interface ClazzService {
 
     void updateStudentCount(String classId, int increment);
 
+    /**
+     * 按班级批量调整学生数量，key为班级ID，value为增量
+     */
+    void updateStudentCounts(Map<String, Integer> increments);
+
+    /**
+     * 按student表重新统计各班级学生数量，返回被修正的班级数
+     */
+    int reconcileStudentCounts();
+
     int getStudentCount(String classId);
 
     String getClassIdByName(String clazz);
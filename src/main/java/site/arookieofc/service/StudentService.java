@@ -2,7 +2,9 @@ package site.arookieofc.service;
 
 import site.arookieofc.pojo.DO.Student;
 import site.arookieofc.pojo.dto.PageResult;
+import site.arookieofc.pojo.dto.StudentDTO;
 import java.util.List;
+import java.util.stream.Stream;
 
 public interface StudentService {
 
@@ -10,14 +12,28 @@ public interface StudentService {
 
     void addStudent(Student student);
 
+    int addStudents(List<Student> students);
+
+    int importStudents(List<StudentDTO> students);
+
     void updateStudent(Student student);
 
     void deleteStudent(String id);
 
     List<Student> getAllStudents();
 
+    /**
+     * 以游标方式逐行读取全部学生，调用方负责关闭Stream以释放连接
+     */
+    Stream<Student> streamAllStudents();
+
     PageResult<Student> getStudentsByPage(int page, int size);
 
+    /**
+     * 键集分页，cursor为上一页返回的nextCursor，为空时从第一条开始
+     */
+    PageResult<Student> getStudentsByCursor(String cursor, int size);
+
     long getTotalStudentCount();
 
     List<Student> getStudentsByClass(String clazz);
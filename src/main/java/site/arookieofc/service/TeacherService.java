@@ -1,6 +1,7 @@
 package site.arookieofc.service;
 
 import site.arookieofc.pojo.DO.Teacher;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -10,6 +11,8 @@ public interface TeacherService {
 
     Teacher getTeacherById(String id);
 
+    List<Teacher> getTeachersByIds(Collection<String> ids);
+
     List<String> getAllClassNames();
 
     void addTeacher(Teacher teacher);
@@ -12,9 +12,12 @@ import site.arookieofc.service.ClazzService;
 import site.arookieofc.service.StudentService;
 import site.arookieofc.service.TeacherService;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.Collections;
+import java.util.Map;
 
 @Component
 @Slf4j
@@ -41,6 +44,11 @@ public class ClazzServiceImpl implements ClazzService {
                 .orElseThrow(() -> new IllegalArgumentException("班级不存在"));
     }
 
+    @Override
+    public List<Clazz> getClassesByIds(Collection<String> ids) {
+        return clazzDAO.getClassesByIds(ids);
+    }
+
     @Override
     public List<Clazz> getClassesByTeacher(@Need String teacherId) {
         return clazzDAO.getClassesByTeacher(teacherId)
@@ -90,10 +98,34 @@ public class ClazzServiceImpl implements ClazzService {
     @Override
     @Transactional
     public void updateStudentCount(@Need String classId, int increment) {
-        Clazz clazz = getClassById(classId);
-        int currentCount = clazz.getStudentCount() != null ? clazz.getStudentCount() : 0;
-        int newCount = Math.max(0, currentCount + increment);
-        clazzDAO.updateStudentCount(newCount, classId);
+        // 在SQL中原子增减，不再先读后写
+        if (!clazzDAO.incrementStudentCount(increment, classId)) {
+            throw new IllegalArgumentException("班级不存在");
+        }
+    }
+
+    @Override
+    @Transactional
+    public void updateStudentCounts(@Need Map<String, Integer> increments) {
+        List<Object[]> deltas = new ArrayList<>(increments.size());
+        increments.forEach((classId, increment) -> {
+            if (increment != 0) {
+                deltas.add(new Object[]{increment, classId});
+            }
+        });
+        if (!deltas.isEmpty()) {
+            clazzDAO.incrementStudentCounts(deltas);
+        }
+    }
+
+    @Override
+    @Transactional
+    public int reconcileStudentCounts() {
+        int corrected = clazzDAO.reconcileStudentCounts();
+        if (corrected > 0) {
+            log.info("班级学生数量校正完成, 修正班级数: {}", corrected);
+        }
+        return corrected;
     }
 
     @Override
@@ -1,20 +1,34 @@
 package site.arookieofc.service.impl;
 
 import lombok.extern.slf4j.Slf4j;
+import site.arookieofc.annotation.config.Config;
 import site.arookieofc.annotation.ioc.Autowired;
 import site.arookieofc.annotation.ioc.Component;
 import site.arookieofc.annotation.transactional.Transactional;
 import site.arookieofc.annotation.validation.Need;
 import site.arookieofc.annotation.validation.Range;
 import site.arookieofc.dao.StudentDAO;
+import site.arookieofc.pojo.DO.Clazz;
 import site.arookieofc.pojo.DO.Student;
 import site.arookieofc.pojo.dto.PageResult;
+import site.arookieofc.pojo.dto.StudentDTO;
+import site.arookieofc.processor.validation.ValidationProcessor;
 import site.arookieofc.service.ClazzService;
 import site.arookieofc.service.StudentService;
 import site.arookieofc.service.TeacherService;
 
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Stream;
 
 @Slf4j
 @Component
@@ -29,6 +43,16 @@ public class StudentServiceImpl implements StudentService {
     @Autowired
     private TeacherService teacherService;
 
+    // 单页数量与页码上限，避免一次读入整表或计算偏移量时溢出
+    private static final int MAX_PAGE_SIZE = 1000;
+    private static final int MAX_PAGE = 1_000_000;
+
+    @Config(value = "pagination.count-cache-ttl", defaultValue = "30000")
+    private static long COUNT_CACHE_TTL;
+
+    private volatile long cachedTotal = -1;
+    private volatile long cachedTotalAt;
+
     @Override
     public Student getStudentById(@Need String id) {
         return studentDAO.getStudentById(id)
@@ -46,6 +70,54 @@ public class StudentServiceImpl implements StudentService {
                 student.getAge(),
                 student.getTeacherId(), classId);
         clazzService.updateStudentCount(classId, 1);
+        invalidateTotalCount();
+    }
+
+    @Override
+    @Transactional
+    public int addStudents(@Need List<Student> students) {
+        if (students.isEmpty()) {
+            return 0;
+        }
+        // 关联的教师和班级各只校验一次
+        Map<String, Integer> classIncrements = new LinkedHashMap<>();
+        Set<String> teacherIds = new HashSet<>();
+        for (Student student : students) {
+            ValidationProcessor.validateObject(student);
+            if (teacherIds.add(student.getTeacherId())) {
+                teacherService.getTeacherById(student.getTeacherId());
+            }
+            classIncrements.merge(student.getClazzId(), 1, Integer::sum);
+        }
+        classIncrements.keySet().forEach(clazzService::getClassById);
+
+        int inserted = studentDAO.addStudents(students);
+        clazzService.updateStudentCounts(classIncrements);
+        invalidateTotalCount();
+        log.info("批量添加学生完成: 提交 {} 条, 插入 {} 条, 涉及班级 {} 个",
+                students.size(), inserted, classIncrements.size());
+        return inserted;
+    }
+
+    @Override
+    @Transactional
+    public int importStudents(@Need List<StudentDTO> students) {
+        // 按班级名称解析班级ID，同名班级只查询一次；未指定教师时默认使用班主任
+        Map<String, Clazz> classesByName = new HashMap<>();
+        List<Student> entities = new ArrayList<>(students.size());
+        for (StudentDTO dto : students) {
+            Student student = dto.toEntity();
+            if (student.getClazzId() == null && dto.getClazzName() != null) {
+                Clazz clazz = classesByName.computeIfAbsent(dto.getClazzName(),
+                        name -> clazzService.getClassById(clazzService.getClassIdByName(name)));
+                student.setClazzId(clazz.getId());
+                if (student.getTeacherId() == null) {
+                    student.setTeacherId(clazz.getTeacherId());
+                }
+            }
+            entities.add(student);
+        }
+        return addStudents(entities);
     }
 
     @Override
@@ -62,8 +134,10 @@ public class StudentServiceImpl implements StudentService {
                 newClassId,
                 student.getId()
         );
-        clazzService.updateStudentCount(originalClassId, -1);
-        clazzService.updateStudentCount(newClassId, 1);
+        if (!Objects.equals(originalClassId, newClassId)) {
+            clazzService.updateStudentCount(originalClassId, -1);
+            clazzService.updateStudentCount(newClassId, 1);
+        }
     }
 
     @Override
@@ -73,6 +147,7 @@ public class StudentServiceImpl implements StudentService {
         String classId = student.getClazzId();
         studentDAO.deleteStudent(id);
         clazzService.updateStudentCount(classId, -1);
+        invalidateTotalCount();
     }
 
     @Override
@@ -82,20 +157,68 @@ public class StudentServiceImpl implements StudentService {
     }
 
     @Override
-    public PageResult<Student> getStudentsByPage(@Range(min = 1) int page,
-                                                 @Range(min = 1) int size) {
+    public Stream<Student> streamAllStudents() {
+        return studentDAO.streamAllStudents();
+    }
+
+    @Override
+    public PageResult<Student> getStudentsByPage(@Range(min = 1, max = MAX_PAGE) int page,
+                                                 @Range(min = 1, max = MAX_PAGE_SIZE) int size) {
         long total = getTotalStudentCount();
-        List<Student> allStudents = getAllStudents();
-        int startIndex = (page - 1) * size;
-        int endIndex = Math.min(startIndex + size, allStudents.size());
-        List<Student> pageData;
-        pageData = allStudents.subList(startIndex, endIndex);
-        return new PageResult<>(pageData, total, page, size);
+        List<Student> pageData = studentDAO.getStudentsByPage(size, Math.multiplyExact(page - 1L, size));
+        // 附带游标，客户端可从任意一页切换到键集分页继续读取
+        String nextCursor = (long) page * size < total && !pageData.isEmpty()
+                ? encodeCursor(pageData.get(pageData.size() - 1).getId())
+                : null;
+        return new PageResult<>(pageData, total, page, size, nextCursor);
+    }
+
+    @Override
+    public PageResult<Student> getStudentsByCursor(String cursor,
+                                                   @Range(min = 1, max = MAX_PAGE_SIZE) int size) {
+        // 多取一条用于判断是否还有下一页
+        List<Student> rows = cursor == null || cursor.isEmpty()
+                ? studentDAO.getFirstStudents(size + 1)
+                : studentDAO.getStudentsAfter(decodeCursor(cursor), size + 1);
+        String nextCursor = null;
+        if (rows.size() > size) {
+            rows = rows.subList(0, size);
+            nextCursor = encodeCursor(rows.get(size - 1).getId());
+        }
+        return new PageResult<>(rows, getTotalStudentCount(), 0, size, nextCursor);
     }
 
+    /**
+     * 总数在TTL内复用缓存值，学生增删时失效
+     */
     @Override
     public long getTotalStudentCount() {
-        return studentDAO.getTotalStudentCount();
+        long now = System.currentTimeMillis();
+        long cached = cachedTotal;
+        if (cached >= 0 && now - cachedTotalAt < COUNT_CACHE_TTL) {
+            return cached;
+        }
+        long total = studentDAO.getTotalStudentCount();
+        cachedTotalAt = now;
+        cachedTotal = total;
+        return total;
+    }
+
+    private void invalidateTotalCount() {
+        cachedTotal = -1;
+    }
+
+    private static String encodeCursor(String lastId) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(lastId.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String decodeCursor(String cursor) {
+        try {
+            return new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("无效的分页游标");
+        }
     }
 
     @Override
@@ -9,6 +9,7 @@ import site.arookieofc.pojo.DO.Student;
 import site.arookieofc.pojo.DO.Teacher;
 import site.arookieofc.service.StudentService;
 import site.arookieofc.service.TeacherService;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 
@@ -40,6 +41,11 @@ public class TeacherServiceImpl implements TeacherService {
                 .orElseThrow(() -> new IllegalArgumentException("教师不存在"));
     }
 
+    @Override
+    public List<Teacher> getTeachersByIds(Collection<String> ids) {
+        return teacherDAO.getTeachersByIds(ids);
+    }
+
     @Override
     public void addTeacher(@Need Teacher teacher) {
         teacherDAO.addTeacher(
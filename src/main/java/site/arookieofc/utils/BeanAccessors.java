@@ -0,0 +1,144 @@
+package site.arookieofc.utils;
+
+import lombok.extern.slf4j.Slf4j;
+import java.lang.invoke.*;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Bean访问器工具类
+ * 通过LambdaMetafactory为构造器、getter、setter生成直接调用的函数对象，
+ * 生成失败时退回到MethodHandle
+ */
+@Slf4j
+public class BeanAccessors {
+
+    @SuppressWarnings("unchecked")
+    public static <T> Supplier<T> constructor(Class<T> type) {
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.privateLookupIn(type, MethodHandles.lookup());
+            MethodHandle handle = lookup.findConstructor(type, MethodType.methodType(void.class));
+            try {
+                CallSite site = LambdaMetafactory.metafactory(lookup, "get",
+                        MethodType.methodType(Supplier.class),
+                        MethodType.methodType(Object.class),
+                        handle,
+                        MethodType.methodType(type));
+                return (Supplier<T>) site.getTarget().invokeExact();
+            } catch (Throwable e) {
+                log.debug("无法为 {} 生成构造Lambda，改用MethodHandle: {}", type.getName(), e.getMessage());
+                MethodHandle generic = handle.asType(MethodType.methodType(Object.class));
+                return () -> {
+                    try {
+                        return (T) generic.invokeExact();
+                    } catch (Throwable ex) {
+                        throw new RuntimeException("Failed to instantiate " + type.getName(), ex);
+                    }
+                };
+            }
+        } catch (NoSuchMethodException | IllegalAccessException e) {
+            throw new RuntimeException("Type must have an accessible no-arg constructor: " + type.getName(), e);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    public static BiConsumer<Object, Object> setter(Class<?> type, Method setter) {
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.privateLookupIn(type, MethodHandles.lookup());
+            MethodHandle handle = lookup.unreflect(setter);
+            Class<?> parameterType = MethodType.methodType(setter.getParameterTypes()[0]).wrap().returnType();
+            try {
+                CallSite site = LambdaMetafactory.metafactory(lookup, "accept",
+                        MethodType.methodType(BiConsumer.class),
+                        MethodType.methodType(void.class, Object.class, Object.class),
+                        handle,
+                        MethodType.methodType(void.class, type, parameterType));
+                return (BiConsumer<Object, Object>) site.getTarget().invokeExact();
+            } catch (Throwable e) {
+                log.debug("无法为 {} 生成setter Lambda，改用MethodHandle: {}", setter.getName(), e.getMessage());
+                MethodHandle generic = handle.asType(MethodType.methodType(void.class, Object.class, Object.class));
+                return (bean, value) -> {
+                    try {
+                        generic.invokeExact(bean, value);
+                    } catch (Throwable ex) {
+                        throw new RuntimeException("Failed to invoke " + setter.getName(), ex);
+                    }
+                };
+            }
+        } catch (IllegalAccessException e) {
+            throw new RuntimeException("Cannot access setter: " + setter, e);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    public static Function<Object, Object> getter(Class<?> type, Method getter) {
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.privateLookupIn(type, MethodHandles.lookup());
+            MethodHandle handle = lookup.unreflect(getter);
+            Class<?> returnType = MethodType.methodType(getter.getReturnType()).wrap().returnType();
+            try {
+                CallSite site = LambdaMetafactory.metafactory(lookup, "apply",
+                        MethodType.methodType(Function.class),
+                        MethodType.methodType(Object.class, Object.class),
+                        handle,
+                        MethodType.methodType(returnType, type));
+                return (Function<Object, Object>) site.getTarget().invokeExact();
+            } catch (Throwable e) {
+                log.debug("无法为 {} 生成getter Lambda，改用MethodHandle: {}", getter.getName(), e.getMessage());
+                MethodHandle generic = handle.asType(MethodType.methodType(Object.class, Object.class));
+                return bean -> {
+                    try {
+                        return generic.invokeExact(bean);
+                    } catch (Throwable ex) {
+                        throw new RuntimeException("Failed to invoke " + getter.getName(), ex);
+                    }
+                };
+            }
+        } catch (IllegalAccessException e) {
+            throw new RuntimeException("Cannot access getter: " + getter, e);
+        }
+    }
+
+    /**
+     * 直接读取字段的访问器；LambdaMetafactory不支持字段句柄，固定使用MethodHandle，静态字段忽略传入的对象
+     */
+    public static Function<Object, Object> fieldGetter(Class<?> type, Field field) {
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.privateLookupIn(type, MethodHandles.lookup());
+            MethodHandle handle = lookup.unreflectGetter(field);
+            if (Modifier.isStatic(field.getModifiers())) {
+                handle = MethodHandles.dropArguments(handle, 0, Object.class);
+            }
+            MethodHandle generic = handle.asType(MethodType.methodType(Object.class, Object.class));
+            return bean -> {
+                try {
+                    return generic.invokeExact(bean);
+                } catch (Throwable ex) {
+                    throw new RuntimeException("Failed to read field " + field.getName(), ex);
+                }
+            };
+        } catch (IllegalAccessException e) {
+            throw new RuntimeException("Cannot access field: " + field, e);
+        }
+    }
+
+    /**
+     * 按属性名查找getter，布尔属性同时支持isXxx
+     */
+    public static Method findGetter(Class<?> type, String property) throws NoSuchMethodException {
+        String capitalized = Character.toUpperCase(property.charAt(0)) + property.substring(1);
+        try {
+            return type.getMethod("get" + capitalized);
+        } catch (NoSuchMethodException e) {
+            Method method = type.getMethod("is" + capitalized);
+            if (method.getReturnType() != boolean.class && method.getReturnType() != Boolean.class) {
+                throw e;
+            }
+            return method;
+        }
+    }
+}
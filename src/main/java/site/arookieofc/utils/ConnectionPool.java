@@ -0,0 +1,91 @@
+package site.arookieofc.utils;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import lombok.extern.slf4j.Slf4j;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 单个数据源的连接池：HikariDataSource、指标收集器与可选的虚拟线程连接闸门
+ */
+@Slf4j
+class ConnectionPool {
+
+    private final String role;
+    private final HikariDataSource dataSource;
+    private final long connectionTimeout;
+    // 虚拟线程模式下的连接闸门：超出连接池容量的线程在此排队挂起，而不是同时争抢连接池
+    private final Semaphore gate;
+    private volatile PoolMetricsTracker metricsTracker;
+
+    ConnectionPool(String role, HikariConfig config, boolean gated) {
+        this.role = role;
+        this.connectionTimeout = config.getConnectionTimeout();
+        config.setMetricsTrackerFactory((poolName, poolStats) -> {
+            PoolMetricsTracker tracker = new PoolMetricsTracker(poolName, poolStats);
+            metricsTracker = tracker;
+            return tracker;
+        });
+        this.dataSource = new HikariDataSource(config);
+        this.gate = gated ? new Semaphore(config.getMaximumPoolSize(), true) : null;
+        if (gated) {
+            log.info("虚拟线程模式: {} 数据库并发访问限制为 {}", config.getPoolName(), config.getMaximumPoolSize());
+        }
+    }
+
+    Connection getConnection() throws SQLException {
+        if (gate == null) {
+            return dataSource.getConnection();
+        }
+        try {
+            if (!gate.tryAcquire(connectionTimeout, TimeUnit.MILLISECONDS)) {
+                throw new SQLTransientConnectionException("等待数据库连接超时: " + connectionTimeout + "ms");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLTransientConnectionException("等待数据库连接被中断", e);
+        }
+        try {
+            return new GatedConnection(dataSource.getConnection(), gate);
+        } catch (SQLException | RuntimeException e) {
+            gate.release();
+            throw e;
+        }
+    }
+
+    /**
+     * 当前借出的连接数，用于最少连接路由
+     */
+    int activeConnections() {
+        HikariPoolMXBean pool = dataSource.getHikariPoolMXBean();
+        int active = pool != null ? pool.getActiveConnections() : 0;
+        return gate != null ? active + gate.getQueueLength() : active;
+    }
+
+    Map<String, Object> getStatistics() {
+        PoolMetricsTracker tracker = metricsTracker;
+        Map<String, Object> stats;
+        if (tracker == null) {
+            stats = new LinkedHashMap<>();
+            stats.put("pool", dataSource.getPoolName());
+        } else {
+            stats = tracker.getStatistics();
+        }
+        stats.put("role", role);
+        if (gate != null) {
+            stats.put("gateWaiting", gate.getQueueLength());
+        }
+        return stats;
+    }
+
+    String getName() {
+        return dataSource.getPoolName();
+    }
+}
@@ -11,8 +11,12 @@ import site.arookieofc.pojo.vo.TeacherVO;
 import site.arookieofc.service.ClazzService;
 import site.arookieofc.service.TeacherService;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
-import java.util.Optional;
+import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 /**
@@ -38,13 +42,39 @@ public class ConversionUtils {
     
     /**
      * 将Student列表转换为StudentVO列表
+     * 先收集去重后的教师ID和班级ID，各用一次IN查询取回，避免逐条查询
      */
     public static List<StudentVO> toStudentVOList(List<Student> students, TeacherService teacherService, ClazzService clazzService) {
-        return students.stream()
-                .map(student -> toStudentVO(student, teacherService, clazzService))
-                .collect(Collectors.toList());
+        if (students.isEmpty()) {
+            return new ArrayList<>();
+        }
+        Set<String> teacherIds = new HashSet<>();
+        Set<String> clazzIds = new HashSet<>();
+        for (Student student : students) {
+            if (student.getTeacherId() != null) {
+                teacherIds.add(student.getTeacherId());
+            }
+            if (student.getClazzId() != null) {
+                clazzIds.add(student.getClazzId());
+            }
+        }
+        Map<String, String> teacherNames = new HashMap<>();
+        teacherService.getTeachersByIds(teacherIds)
+                .forEach(teacher -> teacherNames.put(teacher.getId(), teacher.getName()));
+        Map<String, String> clazzNames = new HashMap<>();
+        clazzService.getClassesByIds(clazzIds)
+                .forEach(clazz -> clazzNames.put(clazz.getId(), clazz.getName()));
+
+        List<StudentVO> studentVOs = new ArrayList<>(students.size());
+        for (Student student : students) {
+            StudentDTO dto = student.toDTO();
+            dto.setTeacherName(teacherNames.get(student.getTeacherId()));
+            dto.setClazzName(clazzNames.get(student.getClazzId()));
+            studentVOs.add(StudentVO.fromDTO(dto));
+        }
+        return studentVOs;
     }
-    
+
     /**
      * 将Student分页结果转换为StudentVO分页结果
      */
@@ -54,7 +84,8 @@ public class ConversionUtils {
                 studentVOs,
                 pageResult.getTotal(),
                 pageResult.getPage(),
-                pageResult.getSize()
+                pageResult.getSize(),
+                pageResult.getNextCursor()
         );
     }
     
@@ -1,11 +1,21 @@
 package site.arookieofc.utils;
 
 import com.zaxxer.hikari.HikariConfig;
-import com.zaxxer.hikari.HikariDataSource;
+import lombok.extern.slf4j.Slf4j;
 import site.arookieofc.annotation.config.Config;
+import site.arookieofc.server.ServerThreads;
 import java.sql.Connection;
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
 
+/**
+ * 数据源管理
+ * 主库处理写操作和事务；配置了jdbc.replicas时，事务外的查询按路由策略分发到只读副本
+ */
+@Slf4j
 public class DatabaseUtil {
 
     @Config("jdbc.url")
@@ -17,14 +27,113 @@ public class DatabaseUtil {
     @Config("jdbc.password")
     private static String PASSWORD;
 
-    private static HikariDataSource dataSource;
+    @Config(value = "jdbc.pool.name", defaultValue = "student-pool")
+    private static String POOL_NAME;
+
+    @Config(value = "jdbc.pool.maximum-pool-size", defaultValue = "20")
+    private static int MAXIMUM_POOL_SIZE;
+
+    @Config(value = "jdbc.pool.minimum-idle", defaultValue = "5")
+    private static int MINIMUM_IDLE;
+
+    @Config(value = "jdbc.pool.connection-timeout", defaultValue = "30000")
+    private static long CONNECTION_TIMEOUT;
+
+    @Config(value = "jdbc.pool.validation-timeout", defaultValue = "5000")
+    private static long VALIDATION_TIMEOUT;
+
+    @Config(value = "jdbc.pool.idle-timeout", defaultValue = "600000")
+    private static long IDLE_TIMEOUT;
+
+    @Config(value = "jdbc.pool.max-lifetime", defaultValue = "1800000")
+    private static long MAX_LIFETIME;
+
+    @Config(value = "jdbc.pool.keepalive-time", defaultValue = "0")
+    private static long KEEPALIVE_TIME;
+
+    @Config(value = "jdbc.pool.leak-detection-threshold", defaultValue = "60000")
+    private static long LEAK_DETECTION_THRESHOLD;
+
+    @Config(value = "jdbc.pool.register-mbeans", defaultValue = "true")
+    private static boolean REGISTER_MBEANS;
+
+    // 只读副本列表，每项包含name、url，可选username、password（缺省使用主库账号）
+    @Config(value = "jdbc.replicas", required = false)
+    private static List<Map<String, Object>> REPLICAS;
+
+    // 副本路由策略：round-robin（轮询）/ least-connections（最少活跃连接）
+    @Config(value = "jdbc.routing.policy", defaultValue = "round-robin")
+    private static String ROUTING_POLICY;
+
+    private static ConnectionPool primary;
+    private static ConnectionPool[] replicas = new ConnectionPool[0];
+    private static boolean leastConnections;
+    private static final AtomicInteger nextReplica = new AtomicInteger();
     private static volatile boolean initialized = false;
 
+    /**
+     * 主库连接，用于写操作和事务
+     */
     public static Connection getConnection() throws SQLException {
         if (!initialized) {
             initializeDataSource();
         }
-        return dataSource.getConnection();
+        return primary.getConnection();
+    }
+
+    /**
+     * 只读连接：未配置副本时返回主库连接；副本获取连接失败时退回主库。
+     * 副本存在复制延迟，写后立即读且需要看到最新数据的场景应放在事务中
+     */
+    public static Connection getReadConnection() throws SQLException {
+        if (!initialized) {
+            initializeDataSource();
+        }
+        ConnectionPool[] pools = replicas;
+        if (pools.length == 0) {
+            return primary.getConnection();
+        }
+        ConnectionPool replica = pools.length == 1 ? pools[0] : selectReplica(pools);
+        try {
+            return replica.getConnection();
+        } catch (SQLException e) {
+            log.warn("从副本 {} 获取连接失败，改用主库: {}", replica.getName(), e.getMessage());
+            return primary.getConnection();
+        }
+    }
+
+    private static ConnectionPool selectReplica(ConnectionPool[] pools) {
+        if (!leastConnections) {
+            return pools[Math.floorMod(nextReplica.getAndIncrement(), pools.length)];
+        }
+        // 活跃连接数相同时从轮询位置开始选择，避免总是落到第一个副本
+        int start = Math.floorMod(nextReplica.getAndIncrement(), pools.length);
+        ConnectionPool selected = pools[start];
+        int fewest = selected.activeConnections();
+        for (int i = 1; i < pools.length && fewest > 0; i++) {
+            ConnectionPool candidate = pools[(start + i) % pools.length];
+            int active = candidate.activeConnections();
+            if (active < fewest) {
+                selected = candidate;
+                fewest = active;
+            }
+        }
+        return selected;
+    }
+
+    /**
+     * 各连接池统计：活跃/空闲/等待线程数、获取连接等待时间、占用时间与超时次数
+     */
+    public static List<Map<String, Object>> getPoolStatistics() {
+        List<Map<String, Object>> stats = new ArrayList<>();
+        if (!initialized) {
+            return stats;
+        }
+        stats.add(primary.getStatistics());
+        for (ConnectionPool replica : replicas) {
+            stats.add(replica.getStatistics());
+        }
+        return stats;
     }
 
     private static synchronized void initializeDataSource() {
@@ -35,16 +144,43 @@ public class DatabaseUtil {
             if (URL == null) {
                 throw new RuntimeException("Database URL not configured. Check config.yml and @Config annotations.");
             }
-            HikariConfig config = getConfig();
-            dataSource = new HikariDataSource(config);
+            boolean gated = ServerThreads.isVirtual();
+            primary = new ConnectionPool("primary", getConfig(POOL_NAME, URL, USERNAME, PASSWORD), gated);
+            replicas = createReplicas(gated);
+            leastConnections = "least-connections".equalsIgnoreCase(ROUTING_POLICY);
+            if (replicas.length > 0) {
+                log.info("已配置 {} 个只读副本，路由策略: {}", replicas.length, leastConnections ? "least-connections" : "round-robin");
+            }
             initialized = true;
         } catch (Exception e) {
             throw new RuntimeException("Failed to initialize database connection pool: " + e.getMessage(), e);
         }
     }
 
-    private static HikariConfig getConfig() {
-        HikariConfig config = getHikariConfig();
+    private static ConnectionPool[] createReplicas(boolean gated) {
+        if (REPLICAS == null || REPLICAS.isEmpty()) {
+            return new ConnectionPool[0];
+        }
+        List<ConnectionPool> pools = new ArrayList<>();
+        for (int i = 0; i < REPLICAS.size(); i++) {
+            Map<String, Object> replica = REPLICAS.get(i);
+            Object url = replica.get("url");
+            if (url == null) {
+                throw new IllegalArgumentException("jdbc.replicas[" + i + "] 缺少url");
+            }
+            String name = String.valueOf(replica.getOrDefault("name", "replica-" + (i + 1)));
+            Object username = replica.getOrDefault("username", USERNAME);
+            Object password = replica.getOrDefault("password", PASSWORD);
+            HikariConfig config = getConfig(POOL_NAME + "-" + name, url.toString(),
+                    username != null ? username.toString() : null,
+                    password != null ? password.toString() : null);
+            pools.add(new ConnectionPool("replica", config, gated));
+        }
+        return pools.toArray(new ConnectionPool[0]);
+    }
+
+    private static HikariConfig getConfig(String poolName, String url, String username, String password) {
+        HikariConfig config = getHikariConfig(poolName, url, username, password);
         // MySQL特定配置
         config.addDataSourceProperty("cachePrepStmts", "true");
         config.addDataSourceProperty("prepStmtCacheSize", "250");
@@ -52,6 +188,7 @@ public class DatabaseUtil {
         config.addDataSourceProperty("useServerPrepStmts", "true");
         config.addDataSourceProperty("useLocalSessionState", "true");
         config.addDataSourceProperty("rewriteBatchedStatements", "true");
+        config.addDataSourceProperty("useCursorFetch", "true"); // 设置了fetchSize的查询使用服务端游标
         config.addDataSourceProperty("cacheResultSetMetadata", "true");
         config.addDataSourceProperty("cacheServerConfiguration", "true");
         config.addDataSourceProperty("elideSetAutoCommits", "false"); // 修改为false
@@ -59,18 +196,22 @@ public class DatabaseUtil {
         return config;
     }
 
-    private static HikariConfig getHikariConfig() {
+    private static HikariConfig getHikariConfig(String poolName, String url, String username, String password) {
         HikariConfig config = new HikariConfig();
-        config.setJdbcUrl(URL);
-        config.setUsername(USERNAME);
-        config.setPassword(PASSWORD);
-        config.setMaximumPoolSize(20);          // 最大连接数
+        config.setJdbcUrl(url);
+        config.setUsername(username);
+        config.setPassword(password);
+        config.setPoolName(poolName);
+        config.setMaximumPoolSize(MAXIMUM_POOL_SIZE);            // 最大连接数
         config.setAutoCommit(false);
-        config.setMinimumIdle(5);               // 最小空闲连接数
-        config.setConnectionTimeout(30000);     // 连接超时时间(30秒)
-        config.setIdleTimeout(600000);          // 空闲连接超时时间(10分钟)
-        config.setMaxLifetime(1800000);         // 连接最大生存时间(30分钟)
-        config.setLeakDetectionThreshold(60000); // 连接泄漏检测阈值(1分钟)
+        config.setMinimumIdle(MINIMUM_IDLE);                     // 最小空闲连接数
+        config.setConnectionTimeout(CONNECTION_TIMEOUT);         // 获取连接超时时间
+        config.setValidationTimeout(VALIDATION_TIMEOUT);         // 连接校验超时时间
+        config.setIdleTimeout(IDLE_TIMEOUT);                     // 空闲连接超时时间
+        config.setMaxLifetime(MAX_LIFETIME);                     // 连接最大生存时间
+        config.setKeepaliveTime(KEEPALIVE_TIME);                 // 空闲连接保活间隔，0表示关闭
+        config.setLeakDetectionThreshold(LEAK_DETECTION_THRESHOLD); // 连接泄漏检测阈值，0表示关闭
+        config.setRegisterMbeans(REGISTER_MBEANS);               // 注册JMX MBean (com.zaxxer.hikari:type=Pool)
         return config;
     }
-}
\ No newline at end of file
+}
@@ -1,12 +1,21 @@
 package site.arookieofc.utils;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import com.fasterxml.jackson.core.json.JsonWriteFeature;
+import java.lang.reflect.Type;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class JsonUtils {
     private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+    // 按目标类型缓存的ObjectReader，泛型类型（如List<StudentVO>）同样适用
+    private static final Map<Type, ObjectReader> READERS = new ConcurrentHashMap<>();
+    // 按运行时类型缓存的ObjectWriter，根序列化器只解析一次
+    private static final Map<Class<?>, ObjectWriter> WRITERS = new ConcurrentHashMap<>();
     
     static {
         OBJECT_MAPPER.registerModule(new JavaTimeModule());
@@ -26,4 +35,12 @@ public class JsonUtils {
     public static <T> T fromJson(String json, Class<T> clazz) throws Exception {
         return OBJECT_MAPPER.readValue(json, clazz);
     }
-}
\ No newline at end of file
+
+    public static ObjectReader readerFor(Type type) {
+        return READERS.computeIfAbsent(type, t -> OBJECT_MAPPER.readerFor(OBJECT_MAPPER.constructType(t)));
+    }
+
+    public static ObjectWriter writerFor(Class<?> type) {
+        return WRITERS.computeIfAbsent(type, OBJECT_MAPPER::writerFor);
+    }
+}
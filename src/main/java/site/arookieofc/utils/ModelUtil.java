@@ -13,6 +13,7 @@ import lombok.Getter;
 import site.arookieofc.annotation.config.Config;
 import site.arookieofc.annotation.ioc.Component;
 import site.arookieofc.service.impl.Bot;
+import site.arookieofc.utils.ai.CancellableHttpClientBuilder;
 import java.time.Duration;
 import java.util.List;
 
@@ -38,6 +39,7 @@ public class ModelUtil {
             ollamaStreamingChatModel = OllamaStreamingChatModel.builder()
                     .baseUrl(URL)
                     .modelName(MODEL_NAME)
+                    .httpClientBuilder(new CancellableHttpClientBuilder())
                     .timeout(Duration.ofMillis(REQUEST_TIMEOUT))
                     .logRequests(true)
                     .logResponses(true)
@@ -0,0 +1,74 @@
+package site.arookieofc.utils;
+
+import com.zaxxer.hikari.metrics.IMetricsTracker;
+import com.zaxxer.hikari.metrics.PoolStats;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 连接池指标收集器
+ * 由Hikari回调记录获取连接等待时间、连接占用时间与超时次数，结合PoolStats输出连接池饱和度
+ */
+public class PoolMetricsTracker implements IMetricsTracker {
+
+    private final String poolName;
+    private final PoolStats poolStats;
+    private final LongAdder acquireCount = new LongAdder();
+    private final LongAdder acquireNanos = new LongAdder();
+    private final LongAccumulator maxAcquireNanos = new LongAccumulator(Math::max, 0);
+    private final LongAdder usageCount = new LongAdder();
+    private final LongAdder usageMillis = new LongAdder();
+    private final LongAccumulator maxUsageMillis = new LongAccumulator(Math::max, 0);
+    private final LongAdder timeouts = new LongAdder();
+
+    public PoolMetricsTracker(String poolName, PoolStats poolStats) {
+        this.poolName = poolName;
+        this.poolStats = poolStats;
+    }
+
+    @Override
+    public void recordConnectionAcquiredNanos(long elapsedAcquiredNanos) {
+        acquireCount.increment();
+        acquireNanos.add(elapsedAcquiredNanos);
+        maxAcquireNanos.accumulate(elapsedAcquiredNanos);
+    }
+
+    @Override
+    public void recordConnectionUsageMillis(long elapsedBorrowedMillis) {
+        usageCount.increment();
+        usageMillis.add(elapsedBorrowedMillis);
+        maxUsageMillis.accumulate(elapsedBorrowedMillis);
+    }
+
+    @Override
+    public void recordConnectionTimeout() {
+        timeouts.increment();
+    }
+
+    public Map<String, Object> getStatistics() {
+        long acquired = acquireCount.sum();
+        long used = usageCount.sum();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("pool", poolName);
+        stats.put("active", poolStats.getActiveConnections());
+        stats.put("idle", poolStats.getIdleConnections());
+        stats.put("total", poolStats.getTotalConnections());
+        stats.put("pending", poolStats.getPendingThreads());
+        stats.put("maxConnections", poolStats.getMaxConnections());
+        stats.put("minConnections", poolStats.getMinConnections());
+        stats.put("acquireCount", acquired);
+        stats.put("acquireAvgMs", acquired == 0 ? 0.0 : nanosToMillis(acquireNanos.sum()) / acquired);
+        stats.put("acquireMaxMs", nanosToMillis(maxAcquireNanos.get()));
+        stats.put("usageAvgMs", used == 0 ? 0.0 : (double) usageMillis.sum() / used);
+        stats.put("usageMaxMs", maxUsageMillis.get());
+        stats.put("timeouts", timeouts.sum());
+        return stats;
+    }
+
+    private static double nanosToMillis(long nanos) {
+        return (double) nanos / TimeUnit.MILLISECONDS.toNanos(1);
+    }
+}
@@ -0,0 +1,56 @@
+package site.arookieofc.utils;
+
+import lombok.extern.slf4j.Slf4j;
+import site.arookieofc.annotation.config.Config;
+import site.arookieofc.processor.ioc.ApplicationContextHolder;
+import site.arookieofc.service.ClazzService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 班级学生数量定时校正
+ * 日常增减在SQL中原子完成，定期用一条聚合UPDATE按student表修正偏差。
+ * 默认关闭：聚合按语句开始时的快照计数，快照之后提交的入班事务的增量会被较小的计数覆盖，
+ * 直到下一次校正才恢复，只应在配置了clazz.reconcile-interval时启用
+ */
+@Slf4j
+public class StudentCountReconciler {
+
+    @Config(value = "clazz.reconcile-interval", defaultValue = "0")
+    private static long INTERVAL;
+
+    private static ScheduledExecutorService scheduler;
+
+    public static synchronized void start() {
+        if (scheduler != null) {
+            return;
+        }
+        if (INTERVAL <= 0) {
+            log.info("班级学生数量定时校正已禁用");
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "student-count-reconciler");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(StudentCountReconciler::reconcile, INTERVAL, INTERVAL, TimeUnit.MILLISECONDS);
+        log.info("班级学生数量定时校正已启动, 间隔: {}ms", INTERVAL);
+    }
+
+    public static synchronized void stop() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+        }
+    }
+
+    private static void reconcile() {
+        try {
+            ApplicationContextHolder.getBean(ClazzService.class).reconcileStudentCounts();
+        } catch (Exception e) {
+            log.error("班级学生数量校正失败: {}", e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package site.arookieofc.utils.ai;
+
+import dev.langchain4j.exception.HttpException;
+import dev.langchain4j.http.client.HttpClient;
+import dev.langchain4j.http.client.HttpClientBuilder;
+import dev.langchain4j.http.client.HttpRequest;
+import dev.langchain4j.http.client.SuccessfulHttpResponse;
+import dev.langchain4j.http.client.jdk.JdkHttpClientBuilder;
+import dev.langchain4j.http.client.sse.ServerSentEvent;
+import dev.langchain4j.http.client.sse.ServerSentEventListener;
+import dev.langchain4j.http.client.sse.ServerSentEventParser;
+import java.time.Duration;
+
+/**
+ * 可取消的模型HTTP客户端
+ * 基于langchain4j自带的JDK客户端，流式请求的响应体登记到当前线程绑定的StreamingCall上，
+ * 取消后关闭响应体，并忽略关闭引起的读取错误；没有绑定句柄的请求与原客户端行为一致
+ */
+public class CancellableHttpClientBuilder implements HttpClientBuilder {
+
+    private final JdkHttpClientBuilder delegate = new JdkHttpClientBuilder();
+
+    @Override
+    public Duration connectTimeout() {
+        return delegate.connectTimeout();
+    }
+
+    @Override
+    public CancellableHttpClientBuilder connectTimeout(Duration timeout) {
+        delegate.connectTimeout(timeout);
+        return this;
+    }
+
+    @Override
+    public Duration readTimeout() {
+        return delegate.readTimeout();
+    }
+
+    @Override
+    public CancellableHttpClientBuilder readTimeout(Duration timeout) {
+        delegate.readTimeout(timeout);
+        return this;
+    }
+
+    @Override
+    public HttpClient build() {
+        return new CancellableHttpClient(delegate.build());
+    }
+
+    private record CancellableHttpClient(HttpClient delegate) implements HttpClient {
+
+        @Override
+        public SuccessfulHttpResponse execute(HttpRequest request) throws HttpException {
+            return delegate.execute(request);
+        }
+
+        @Override
+        public void execute(HttpRequest request, ServerSentEventParser parser, ServerSentEventListener listener) {
+            StreamingCall call = StreamingCall.current();
+            if (call == null) {
+                delegate.execute(request, parser, listener);
+                return;
+            }
+            // 客户端已断开时不再发出工具调用后的后续请求
+            if (call.isCancelled()) {
+                return;
+            }
+            ServerSentEventListener guarded = new CancellableListener(listener, call);
+            delegate.execute(request,
+                    (body, target) -> call.read(body, () -> parser.parse(body, target)),
+                    guarded);
+        }
+    }
+
+    private record CancellableListener(ServerSentEventListener delegate, StreamingCall call)
+            implements ServerSentEventListener {
+
+        @Override
+        public void onOpen(SuccessfulHttpResponse response) {
+            delegate.onOpen(response);
+        }
+
+        @Override
+        public void onEvent(ServerSentEvent event) {
+            if (!call.isCancelled()) {
+                delegate.onEvent(event);
+            }
+        }
+
+        @Override
+        public void onError(Throwable error) {
+            if (!call.isCancelled()) {
+                delegate.onError(error);
+            }
+        }
+
+        @Override
+        public void onClose() {
+            delegate.onClose();
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package site.arookieofc.utils.ai;
+
+import lombok.extern.slf4j.Slf4j;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * 一次流式对话的取消句柄
+ * 调用TokenStream.start()前绑定到当前线程，期间发出的流式请求会把响应体登记到句柄上；
+ * cancel()关闭正在读取的响应体，HTTP连接随之断开，模型服务端停止生成。
+ * 工具调用后的后续请求在读取线程上发出，读取期间句柄同样绑定在该线程上
+ */
+@Slf4j
+public final class StreamingCall {
+
+    private static final ThreadLocal<StreamingCall> CURRENT = new ThreadLocal<>();
+
+    private volatile boolean cancelled;
+    private InputStream body;
+
+    private StreamingCall() {
+    }
+
+    /**
+     * 创建句柄并绑定到当前线程，start()返回后调用unbind()
+     */
+    public static StreamingCall bind() {
+        StreamingCall call = new StreamingCall();
+        CURRENT.set(call);
+        return call;
+    }
+
+    public void unbind() {
+        if (CURRENT.get() == this) {
+            CURRENT.remove();
+        }
+    }
+
+    static StreamingCall current() {
+        return CURRENT.get();
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    /**
+     * 取消后再到达的响应体直接关闭
+     */
+    public void cancel() {
+        InputStream current;
+        synchronized (this) {
+            if (cancelled) {
+                return;
+            }
+            cancelled = true;
+            current = body;
+            body = null;
+        }
+        closeQuietly(current);
+    }
+
+    /**
+     * 登记响应体并在读取期间把句柄绑定到读取线程；已取消时关闭响应体且不再读取
+     */
+    void read(InputStream in, Runnable reader) {
+        synchronized (this) {
+            if (!cancelled) {
+                body = in;
+            }
+        }
+        if (cancelled) {
+            closeQuietly(in);
+            return;
+        }
+        StreamingCall previous = CURRENT.get();
+        CURRENT.set(this);
+        try {
+            reader.run();
+        } finally {
+            if (previous != null) {
+                CURRENT.set(previous);
+            } else {
+                CURRENT.remove();
+            }
+            synchronized (this) {
+                if (body == in) {
+                    body = null;
+                }
+            }
+        }
+    }
+
+    private static void closeQuietly(InputStream in) {
+        if (in == null) {
+            return;
+        }
+        try {
+            in.close();
+        } catch (IOException e) {
+            log.debug("关闭流式响应失败: {}", e.getMessage());
+        }
+    }
+}
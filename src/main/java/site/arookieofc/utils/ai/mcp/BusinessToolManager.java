@@ -11,6 +11,7 @@ import site.arookieofc.service.ClazzService;
 import java.util.List;
 import java.util.Map;
 import java.util.HashMap;
+import java.util.stream.Stream;
 import java.nio.charset.StandardCharsets;
 
 public class BusinessToolManager {
@@ -141,8 +142,9 @@ public class BusinessToolManager {
     private String handleStudentQueryTool(String operation, Map<String, Object> args) {
         return switch (operation) {
             case "getAll" -> {
-                List<Student> students = studentService.getAllStudents();
-                yield EntityOperationHelper.formatStudentList(students);
+                try (Stream<Student> students = studentService.streamAllStudents()) {
+                    yield EntityOperationHelper.formatStudentStream(students);
+                }
             }
             case "getById" -> {
                 String id = (String) args.get("id");
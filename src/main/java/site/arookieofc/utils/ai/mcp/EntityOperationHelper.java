@@ -5,6 +5,7 @@ import site.arookieofc.pojo.DO.Student;
 import site.arookieofc.pojo.DO.Teacher;
 import java.util.List;
 import java.util.Map;
+import java.util.stream.Stream;
 
 public class EntityOperationHelper {
 
@@ -87,6 +88,19 @@ public class EntityOperationHelper {
         return sb.toString();
     }
 
+    public static String formatStudentStream(Stream<Student> students) {
+        StringBuilder body = new StringBuilder();
+        int[] count = {0};
+        students.forEach(student -> {
+            body.append(formatStudent(student)).append("\n");
+            count[0]++;
+        });
+        if (count[0] == 0) {
+            return "没有找到学生信息";
+        }
+        return "学生列表 (共" + count[0] + "人):\n" + body;
+    }
+
     public static String formatTeacher(Teacher teacher) {
         if (teacher == null) {
             return "教师不存在";
@@ -0,0 +1,179 @@
+package site.arookieofc.processor.aop;
+
+import org.junit.Test;
+import site.arookieofc.processor.proxy.GeneratedProxy;
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+/**
+ * 生成的拦截链代理：被拦截的方法经过拦截器，其余方法直接调用目标对象，两条路径的参数、返回值和异常都与目标一致
+ */
+public class GeneratedChainProxyTest {
+
+    public interface Calculator {
+        int add(int a, int b);
+
+        long multiply(long a, long b);
+
+        double divide(double a, double b);
+
+        String describe(boolean flag, byte b, short s, char c, float f, long l, double d);
+
+        void record(String value);
+
+        String load(String path) throws IOException;
+
+        default String greet(String name) {
+            return "hello " + name + " " + add(1, 2);
+        }
+    }
+
+    public static class SimpleCalculator implements Calculator {
+
+        final List<String> recorded = new ArrayList<>();
+
+        @Override
+        public int add(int a, int b) {
+            return a + b;
+        }
+
+        @Override
+        public long multiply(long a, long b) {
+            return a * b;
+        }
+
+        @Override
+        public double divide(double a, double b) {
+            return a / b;
+        }
+
+        @Override
+        public String describe(boolean flag, byte b, short s, char c, float f, long l, double d) {
+            return flag + "," + b + "," + s + "," + c + "," + f + "," + l + "," + d;
+        }
+
+        @Override
+        public void record(String value) {
+            recorded.add(value);
+        }
+
+        @Override
+        public String load(String path) throws IOException {
+            throw new IOException("missing " + path);
+        }
+    }
+
+    /**
+     * 只拦截指定名称的方法，记录经过的方法名和参数
+     */
+    static class RecordingInterceptor implements MethodInterceptor {
+
+        final Set<String> names;
+        final List<String> calls = new ArrayList<>();
+
+        RecordingInterceptor(String... names) {
+            this.names = Set.of(names);
+        }
+
+        @Override
+        public boolean appliesTo(Method method, Class<?> targetClass) {
+            return names.contains(method.getName());
+        }
+
+        @Override
+        public Object invoke(MethodInvocation invocation) throws Throwable {
+            calls.add(invocation.getMethod().getName() + Arrays.toString(invocation.getArguments()));
+            return invocation.proceed();
+        }
+    }
+
+    private static Calculator proxy(SimpleCalculator target, RecordingInterceptor interceptor) {
+        Object proxy = InterceptorChain.apply(target, List.of(interceptor));
+        assertTrue("应使用生成的代理类: " + proxy.getClass(), proxy instanceof GeneratedProxy);
+        return (Calculator) proxy;
+    }
+
+    @Test
+    public void directCallsPassPrimitivesThrough() {
+        RecordingInterceptor interceptor = new RecordingInterceptor("record");
+        Calculator calculator = proxy(new SimpleCalculator(), interceptor);
+
+        assertEquals(7, calculator.add(3, 4));
+        assertEquals(Long.MAX_VALUE - 1, calculator.multiply(Long.MAX_VALUE / 2, 2));
+        assertEquals(2.5, calculator.divide(5, 2), 0.0);
+        assertEquals("true,-1,300,x,1.5,9000000000,0.25",
+                calculator.describe(true, (byte) -1, (short) 300, 'x', 1.5f, 9_000_000_000L, 0.25));
+        assertTrue(interceptor.calls.isEmpty());
+    }
+
+    @Test
+    public void interceptedCallsBoxAndUnboxPrimitives() {
+        RecordingInterceptor interceptor = new RecordingInterceptor("add", "multiply", "divide", "describe");
+        Calculator calculator = proxy(new SimpleCalculator(), interceptor);
+
+        assertEquals(7, calculator.add(3, 4));
+        assertEquals(Long.MAX_VALUE - 1, calculator.multiply(Long.MAX_VALUE / 2, 2));
+        assertEquals(2.5, calculator.divide(5, 2), 0.0);
+        assertEquals("false,127,-2,y,-0.5,-1,1.0E10",
+                calculator.describe(false, (byte) 127, (short) -2, 'y', -0.5f, -1L, 1e10));
+        assertEquals(List.of("add[3, 4]", "multiply[4611686018427387903, 2]", "divide[5.0, 2.0]",
+                "describe[false, 127, -2, y, -0.5, -1, 1.0E10]"), interceptor.calls);
+    }
+
+    @Test
+    public void voidMethodsReachTheTarget() {
+        SimpleCalculator target = new SimpleCalculator();
+        RecordingInterceptor interceptor = new RecordingInterceptor("record");
+        Calculator calculator = proxy(target, interceptor);
+        calculator.record("a");
+
+        Calculator direct = proxy(target, new RecordingInterceptor("add"));
+        direct.record("b");
+
+        assertEquals(List.of("a", "b"), target.recorded);
+        assertEquals(List.of("record[a]"), interceptor.calls);
+    }
+
+    @Test
+    public void defaultMethodsRunOnTheTarget() {
+        RecordingInterceptor interceptor = new RecordingInterceptor("add");
+        Calculator calculator = proxy(new SimpleCalculator(), interceptor);
+
+        assertEquals("hello tom 3", calculator.greet("tom"));
+        // 与JDK代理一致：未拦截的default方法在目标对象上执行，内部的add调用不经过代理
+        assertTrue(interceptor.calls.isEmpty());
+
+        RecordingInterceptor greetInterceptor = new RecordingInterceptor("greet");
+        assertEquals("hello ann 3", proxy(new SimpleCalculator(), greetInterceptor).greet("ann"));
+        assertEquals(List.of("greet[ann]"), greetInterceptor.calls);
+    }
+
+    @Test
+    public void checkedExceptionsPassThroughUnwrapped() {
+        for (RecordingInterceptor interceptor : List.of(new RecordingInterceptor("load"), new RecordingInterceptor("add"))) {
+            Calculator calculator = proxy(new SimpleCalculator(), interceptor);
+            try {
+                calculator.load("a.txt");
+                fail("应抛出IOException");
+            } catch (IOException e) {
+                assertEquals("missing a.txt", e.getMessage());
+            }
+        }
+    }
+
+    @Test
+    public void objectMethodsDelegateToTheTarget() {
+        SimpleCalculator target = new SimpleCalculator();
+        Calculator calculator = proxy(target, new RecordingInterceptor("add"));
+
+        assertEquals(target.hashCode(), calculator.hashCode());
+        assertEquals(target.toString(), calculator.toString());
+        assertTrue(calculator.equals(target));
+    }
+}
@@ -0,0 +1,85 @@
+package site.arookieofc.processor.aop;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import site.arookieofc.processor.proxy.ProxyClassGenerator;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 代理引擎对比：JDK动态代理与生成的代理类，分别测量未拦截方法和经过一个拦截器的方法
+ * 运行方式：mvn test-compile后执行本类的main方法，或以org.openjdk.jmh.Main ProxyEngineBenchmark运行
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ProxyEngineBenchmark {
+
+    public interface Service {
+        int intercepted(int value);
+
+        int direct(int value);
+    }
+
+    public static class SimpleService implements Service {
+        @Override
+        public int intercepted(int value) {
+            return value + 1;
+        }
+
+        @Override
+        public int direct(int value) {
+            return value + 2;
+        }
+    }
+
+    /**
+     * 只拦截intercepted方法，拦截逻辑为空，测得的是代理本身的开销
+     */
+    static class PassThroughInterceptor implements MethodInterceptor {
+        @Override
+        public boolean appliesTo(Method method, Class<?> targetClass) {
+            return method.getName().equals("intercepted");
+        }
+
+        @Override
+        public Object invoke(MethodInvocation invocation) throws Throwable {
+            return invocation.proceed();
+        }
+    }
+
+    @Param({"jdk", "generated"})
+    public String engine;
+
+    private Service service;
+    private int value;
+
+    @Setup
+    public void setUp() throws Exception {
+        Field field = ProxyClassGenerator.class.getDeclaredField("engine");
+        field.setAccessible(true);
+        field.set(null, engine);
+        service = (Service) InterceptorChain.apply(new SimpleService(), List.of(new PassThroughInterceptor()));
+    }
+
+    @Benchmark
+    public int interceptedCall() {
+        return service.intercepted(value++);
+    }
+
+    @Benchmark
+    public int directCall() {
+        return service.direct(value++);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(ProxyEngineBenchmark.class.getSimpleName()).build()).run();
+    }
+}
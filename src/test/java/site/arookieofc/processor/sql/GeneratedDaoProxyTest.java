@@ -0,0 +1,126 @@
+package site.arookieofc.processor.sql;
+
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import site.arookieofc.annotation.sql.SQL;
+import site.arookieofc.processor.config.ConfigProcessor;
+import site.arookieofc.processor.proxy.GeneratedProxy;
+import site.arookieofc.utils.DatabaseUtil;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * 生成的DAO代理：按序号分发到SQL描述符，基本类型参数和返回值、default方法与缺少@SQL的方法
+ * 查询可能路由到任一副本，因此三个库写入相同的初始数据；写操作只检查主库
+ */
+public class GeneratedDaoProxyTest {
+
+    private static final String[] DATABASES = {"route_primary", "route_replica1", "route_replica2"};
+
+    public interface ItemDAO {
+        @SQL("SELECT name FROM items WHERE id = ?")
+        String findName(int id);
+
+        @SQL("SELECT price FROM items WHERE id = ?")
+        double price(long id);
+
+        @SQL("SELECT COUNT(*) FROM items")
+        long count();
+
+        @SQL("SELECT name FROM items WHERE id IN (?) ORDER BY id")
+        List<String> names(List<Integer> ids);
+
+        @SQL(value = "UPDATE items SET price = ? WHERE id = ?", type = "UPDATE")
+        int updatePrice(double price, int id);
+
+        @SQL(value = "UPDATE items SET name = ? WHERE id = ?", type = "UPDATE")
+        boolean rename(String name, int id);
+
+        @SQL(value = "DELETE FROM items WHERE id = ?", type = "DELETE")
+        void delete(int id);
+
+        default String label(int id) {
+            return findName(id) + "@" + price(id);
+        }
+
+        String notMapped();
+    }
+
+    private ItemDAO dao;
+
+    @BeforeClass
+    public static void configure() {
+        ConfigProcessor.injectStaticFields(DatabaseUtil.class);
+    }
+
+    @Before
+    public void setUp() throws SQLException {
+        for (String db : DATABASES) {
+            try (Connection connection = DriverManager.getConnection("jdbc:h2:mem:" + db + ";DB_CLOSE_DELAY=-1");
+                 Statement stmt = connection.createStatement()) {
+                stmt.execute("DROP TABLE IF EXISTS items");
+                stmt.execute("CREATE TABLE items(id INT PRIMARY KEY, name VARCHAR(32), price DOUBLE)");
+                stmt.execute("INSERT INTO items VALUES (1, 'pen', 1.5), (2, 'book', 12.25), (3, 'bag', 30.0)");
+            }
+        }
+        Object proxy = GeneratedDaoProxy.create(ItemDAO.class, DaoMethodDescriptor.forInterface(ItemDAO.class));
+        assertTrue(proxy instanceof GeneratedProxy);
+        dao = (ItemDAO) proxy;
+    }
+
+    @Test
+    public void queriesReturnPrimitivesAndLists() {
+        assertEquals("book", dao.findName(2));
+        assertEquals(12.25, dao.price(2L), 0.0);
+        assertEquals(3L, dao.count());
+        assertEquals(List.of("pen", "bag"), dao.names(List.of(3, 1)));
+        assertNull(dao.findName(99));
+        assertEquals(0.0, dao.price(99L), 0.0);
+    }
+
+    @Test
+    public void updatesRunOnThePrimary() throws SQLException {
+        assertEquals(1, dao.updatePrice(2.0, 1));
+        assertTrue(dao.rename("pencil", 1));
+        assertFalse(dao.rename("ghost", 99));
+        dao.delete(3);
+
+        try (Connection connection = DriverManager.getConnection("jdbc:h2:mem:route_primary;DB_CLOSE_DELAY=-1");
+             Statement stmt = connection.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT id, name, price FROM items ORDER BY id")) {
+            assertTrue(rs.next());
+            assertEquals("pencil", rs.getString("name"));
+            assertEquals(2.0, rs.getDouble("price"), 0.0);
+            assertTrue(rs.next());
+            assertEquals(2, rs.getInt("id"));
+            assertFalse(rs.next());
+        }
+    }
+
+    @Test
+    public void defaultMethodsCallBackIntoTheProxy() {
+        assertEquals("pen@1.5", dao.label(1));
+    }
+
+    @Test
+    public void methodsWithoutSqlAreRejected() {
+        try {
+            dao.notMapped();
+            fail("缺少@SQL的方法应抛出异常");
+        } catch (RuntimeException e) {
+            assertTrue(e.getMessage(), e.getMessage().contains("notMapped"));
+        }
+    }
+
+    @Test
+    public void toStringNamesTheInterface() {
+        assertEquals(ItemDAO.class.getName() + "$DAOProxy", dao.toString());
+    }
+}
@@ -0,0 +1,53 @@
+package site.arookieofc.processor.sql;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+import site.arookieofc.annotation.sql.SQL;
+import site.arookieofc.annotation.transactional.Isolation;
+import site.arookieofc.annotation.transactional.Propagation;
+import site.arookieofc.processor.config.ConfigProcessor;
+import site.arookieofc.processor.transaction.TransactionManager;
+import site.arookieofc.processor.transaction.TransactionStatus;
+import site.arookieofc.utils.DatabaseUtil;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class SQLExecutorTest {
+
+    public interface NumberDAO {
+        @SQL(value = "SELECT X FROM SYSTEM_RANGE(1, 3)", fetchSize = 0)
+        long forEachNumber(RowConsumer<Integer> consumer);
+    }
+
+    @BeforeClass
+    public static void configure() {
+        ConfigProcessor.injectStaticFields(DatabaseUtil.class);
+    }
+
+    @Test
+    public void rowConsumerSurvivesStatementCacheEviction() throws SQLException {
+        DaoMethodDescriptor descriptor = DaoMethodDescriptor.forInterface(NumberDAO.class).values().iterator().next();
+        List<Integer> rows = new ArrayList<>();
+        TransactionStatus status = TransactionManager.begin(Propagation.REQUIRED, Isolation.DEFAULT);
+        try {
+            RowConsumer<Integer> consumer = row -> {
+                rows.add(row);
+                // 回调中执行的不同语句超过事务语句缓存上限(32)
+                try {
+                    for (int i = 0; i < 40; i++) {
+                        status.prepareStatement("SELECT " + row + " + " + i).executeQuery().close();
+                    }
+                } catch (SQLException e) {
+                    throw new RuntimeException(e);
+                }
+            };
+            assertEquals(3L, SQLExecutor.executeSQL(descriptor, new Object[]{consumer}));
+        } finally {
+            TransactionManager.rollback(status);
+        }
+        assertEquals(List.of(1, 2, 3), rows);
+    }
+}
@@ -0,0 +1,52 @@
+package site.arookieofc.processor.transaction;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import site.arookieofc.processor.config.ConfigProcessor;
+import site.arookieofc.utils.DatabaseUtil;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+
+import static org.junit.Assert.*;
+
+public class ConnectionHolderTest {
+
+    private ConnectionHolder holder;
+
+    @BeforeClass
+    public static void configure() {
+        ConfigProcessor.injectStaticFields(DatabaseUtil.class);
+    }
+
+    @Before
+    public void setUp() {
+        holder = new ConnectionHolder(ConnectionHolder.DEFAULT_ISOLATION);
+    }
+
+    @After
+    public void tearDown() throws SQLException {
+        holder.close();
+    }
+
+    @Test
+    public void reusesStatementsForTheSameSql() throws SQLException {
+        PreparedStatement first = holder.prepareStatement("SELECT 1");
+        assertSame(first, holder.prepareStatement("SELECT 1"));
+    }
+
+    @Test
+    public void closesTheLeastRecentlyUsedStatementBeyondTheLimit() throws SQLException {
+        PreparedStatement eldest = holder.prepareStatement("SELECT 0");
+        PreparedStatement recent = holder.prepareStatement("SELECT 1");
+        for (int i = 2; i <= ConnectionHolder.MAX_CACHED_STATEMENTS; i++) {
+            holder.prepareStatement("SELECT " + i);
+            // 保持SELECT 1为最近使用
+            assertSame(recent, holder.prepareStatement("SELECT 1"));
+        }
+        assertTrue(eldest.isClosed());
+        assertFalse(recent.isClosed());
+        assertNotSame(eldest, holder.prepareStatement("SELECT 0"));
+    }
+}
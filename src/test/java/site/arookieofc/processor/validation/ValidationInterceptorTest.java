@@ -0,0 +1,78 @@
+package site.arookieofc.processor.validation;
+
+import org.junit.Test;
+import site.arookieofc.annotation.validation.Range;
+import java.lang.reflect.Method;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * 参数声明为接口或父类时，按实参的运行时类型校验字段
+ */
+public class ValidationInterceptorTest {
+
+    public interface Shape {
+    }
+
+    public static class Circle implements Shape {
+        @Range(min = 1, max = 10)
+        private final int radius;
+
+        public Circle(int radius) {
+            this.radius = radius;
+        }
+    }
+
+    public static final class Point {
+        private final int x;
+
+        public Point(int x) {
+            this.x = x;
+        }
+    }
+
+    public static class Canvas {
+        public void draw(Shape shape) {
+        }
+
+        public void drawAny(Object shape) {
+        }
+
+        public void move(Point point, List<String> tags, int times) {
+        }
+    }
+
+    private final ValidationInterceptor interceptor = new ValidationInterceptor();
+
+    private static Method method(String name) {
+        for (Method method : Canvas.class.getMethods()) {
+            if (method.getName().equals(name)) {
+                return method;
+            }
+        }
+        throw new IllegalArgumentException(name);
+    }
+
+    @Test
+    public void interfaceParametersAreValidatedByRuntimeClass() {
+        Method draw = method("draw");
+        assertTrue(interceptor.appliesTo(draw, Canvas.class));
+        ValidationInterceptor.intercept(draw, new Object[]{new Circle(5)});
+        assertThrows(IllegalArgumentException.class,
+                () -> ValidationInterceptor.intercept(draw, new Object[]{new Circle(20)}));
+    }
+
+    @Test
+    public void objectParametersAreValidatedByRuntimeClass() {
+        Method drawAny = method("drawAny");
+        assertTrue(interceptor.appliesTo(drawAny, Canvas.class));
+        assertThrows(IllegalArgumentException.class,
+                () -> ValidationInterceptor.intercept(drawAny, new Object[]{new Circle(0)}));
+    }
+
+    @Test
+    public void finalAndJdkParametersWithoutConstraintsAreNotIntercepted() {
+        assertFalse(interceptor.appliesTo(method("move"), Canvas.class));
+    }
+}
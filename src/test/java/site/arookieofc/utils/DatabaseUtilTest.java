@@ -0,0 +1,181 @@
+package site.arookieofc.utils;
+
+import org.junit.After;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import site.arookieofc.annotation.sql.SQL;
+import site.arookieofc.annotation.transactional.Isolation;
+import site.arookieofc.annotation.transactional.Propagation;
+import site.arookieofc.processor.config.ConfigProcessor;
+import site.arookieofc.processor.sql.DaoMethodDescriptor;
+import site.arookieofc.processor.sql.SQLExecutor;
+import site.arookieofc.processor.transaction.TransactionManager;
+import site.arookieofc.processor.transaction.TransactionStatus;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+/**
+ * 读写路由测试：主库与两个副本是三个独立的H2内存库，按DATABASE()区分连接来自哪个库
+ */
+public class DatabaseUtilTest {
+
+    private static final String PRIMARY = "ROUTE_PRIMARY";
+    private static final String REPLICA1 = "ROUTE_REPLICA1";
+    private static final String REPLICA2 = "ROUTE_REPLICA2";
+
+    private static final List<Connection> keepAlive = new ArrayList<>();
+    private static Map<Method, DaoMethodDescriptor> descriptors;
+
+    private final List<Connection> held = new ArrayList<>();
+
+    interface RoutingDao {
+        @SQL("SELECT DATABASE()")
+        String currentDatabase();
+
+        @SQL(value = "INSERT INTO visits(db) VALUES (DATABASE())", type = "INSERT")
+        int recordVisit();
+    }
+
+    @BeforeClass
+    public static void setUp() throws SQLException {
+        // 先以缺省账号建库，副本连接池若以其他账号连接会被拒绝
+        for (String db : new String[]{"route_primary", "route_replica1", "route_replica2"}) {
+            Connection connection = DriverManager.getConnection("jdbc:h2:mem:" + db + ";DB_CLOSE_DELAY=-1");
+            try (Statement stmt = connection.createStatement()) {
+                stmt.execute("CREATE TABLE visits(db VARCHAR(32))");
+            }
+            keepAlive.add(connection);
+        }
+        ConfigProcessor.injectStaticFields(DatabaseUtil.class);
+        descriptors = DaoMethodDescriptor.forInterface(RoutingDao.class);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        for (Connection connection : held) {
+            connection.close();
+        }
+        held.clear();
+        setLeastConnections(false);
+    }
+
+    @Test
+    public void roundRobinAlternatesBetweenReplicas() throws SQLException {
+        List<String> served = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            try (Connection connection = DatabaseUtil.getReadConnection()) {
+                served.add(databaseOf(connection));
+            }
+        }
+        for (int i = 0; i < served.size(); i++) {
+            assertTrue(served.toString(), served.get(i).equals(REPLICA1) || served.get(i).equals(REPLICA2));
+            if (i > 0) {
+                assertNotEquals(served.toString(), served.get(i - 1), served.get(i));
+            }
+        }
+    }
+
+    @Test
+    public void leastConnectionsPicksTheLessBusyReplica() throws Exception {
+        setLeastConnections(true);
+        Connection busy = hold(DatabaseUtil.getReadConnection());
+        String busyReplica = databaseOf(busy);
+        String idleReplica = busyReplica.equals(REPLICA1) ? REPLICA2 : REPLICA1;
+        for (int i = 0; i < 4; i++) {
+            try (Connection connection = DatabaseUtil.getReadConnection()) {
+                assertEquals(idleReplica, databaseOf(connection));
+            }
+        }
+    }
+
+    @Test
+    public void writesUseThePrimary() throws Exception {
+        try (Connection connection = DatabaseUtil.getConnection()) {
+            assertEquals(PRIMARY, databaseOf(connection));
+        }
+        int before = visits(0);
+        assertEquals(1, SQLExecutor.executeSQL(descriptor("recordVisit"), new Object[0]));
+        assertEquals(before + 1, visits(0));
+        assertEquals(0, visits(1));
+        assertEquals(0, visits(2));
+        assertEquals(PRIMARY, SQLExecutor.executeSQL(descriptor("currentDatabase"), new Object[0], true));
+    }
+
+    @Test
+    public void transactionsStayOnThePrimary() throws Exception {
+        TransactionStatus status = TransactionManager.begin(Propagation.REQUIRED, Isolation.DEFAULT);
+        try {
+            for (int i = 0; i < 4; i++) {
+                assertEquals(PRIMARY, SQLExecutor.executeSQL(descriptor("currentDatabase"), new Object[0]));
+            }
+        } finally {
+            TransactionManager.rollback(status);
+        }
+        assertNotEquals(PRIMARY, SQLExecutor.executeSQL(descriptor("currentDatabase"), new Object[0]));
+    }
+
+    @Test
+    public void exhaustedReplicaFallsBackToThePrimary() throws SQLException {
+        // 占满replica1的连接池，轮到它时等待connection-timeout后改用主库
+        int replica1Held = 0;
+        while (replica1Held < 2) {
+            Connection connection = DatabaseUtil.getReadConnection();
+            if (databaseOf(connection).equals(REPLICA1)) {
+                hold(connection);
+                replica1Held++;
+            } else {
+                connection.close();
+            }
+        }
+        Set<String> served = new HashSet<>();
+        for (int i = 0; i < 2; i++) {
+            try (Connection connection = DatabaseUtil.getReadConnection()) {
+                served.add(databaseOf(connection));
+            }
+        }
+        assertEquals(Set.of(PRIMARY, REPLICA2), served);
+    }
+
+    private Connection hold(Connection connection) {
+        held.add(connection);
+        return connection;
+    }
+
+    private static String databaseOf(Connection connection) throws SQLException {
+        try (Statement stmt = connection.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT DATABASE()")) {
+            rs.next();
+            return rs.getString(1);
+        }
+    }
+
+    private static int visits(int db) throws SQLException {
+        try (Statement stmt = keepAlive.get(db).createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT COUNT(*) FROM visits")) {
+            rs.next();
+            return rs.getInt(1);
+        }
+    }
+
+    private static DaoMethodDescriptor descriptor(String name) throws NoSuchMethodException {
+        return descriptors.get(RoutingDao.class.getDeclaredMethod(name));
+    }
+
+    private static void setLeastConnections(boolean enabled) throws Exception {
+        Field field = DatabaseUtil.class.getDeclaredField("leastConnections");
+        field.setAccessible(true);
+        field.setBoolean(null, enabled);
+    }
+}
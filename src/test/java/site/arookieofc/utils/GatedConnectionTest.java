@@ -0,0 +1,42 @@
+package site.arookieofc.utils;
+
+import org.junit.Before;
+import org.junit.Test;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.concurrent.Semaphore;
+
+import static org.junit.Assert.*;
+
+public class GatedConnectionTest {
+
+    private Semaphore gate;
+
+    @Before
+    public void setUp() throws InterruptedException {
+        gate = new Semaphore(1);
+        gate.acquire();
+    }
+
+    private static Connection stubConnection() {
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                new Class<?>[]{Connection.class}, (proxy, method, args) -> null);
+    }
+
+    @Test
+    public void closeReleasesThePermitOnce() throws SQLException {
+        Connection connection = new GatedConnection(stubConnection(), gate);
+        connection.close();
+        connection.close();
+        assertEquals(1, gate.availablePermits());
+    }
+
+    @Test
+    public void abortReleasesThePermit() throws SQLException {
+        Connection connection = new GatedConnection(stubConnection(), gate);
+        connection.abort(Runnable::run);
+        connection.close();
+        assertEquals(1, gate.availablePermits());
+    }
+}